@@ -0,0 +1,94 @@
+package pennywise;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import pennywise.data.DataLoader;
+
+/**
+ * AccountLoadBenchmark measures loading users that own hundreds of accounts.
+ *
+ * Phase 1 adds accounts straight through User.addAccount and compares it with the
+ * previous grow-by-one array copy. Phase 2 writes users.txt and accounts.txt into
+ * ./data and times a full DataLoader.loadAllData().
+ *
+ * Run it from an empty scratch directory: it refuses to touch an existing data folder.
+ *
+ * Usage: java -cp PennyWise/bin pennywise.AccountLoadBenchmark [users] [accountsPerUser]
+ */
+public class AccountLoadBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int userCount = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int accountsPerUser = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+
+        File dataDir = new File("data");
+        if (dataDir.exists()) {
+            System.out.println("A data folder already exists here. Run the benchmark from an empty directory.");
+            return;
+        }
+
+        System.out.println("Users: " + userCount + ", accounts per user: " + accountsPerUser);
+
+        // Phase 1: in-memory growth
+        Account[] template = new Account[accountsPerUser];
+        for (int i = 0; i < accountsPerUser; i++) {
+            template[i] = new CheckingAccount("CA-bench-" + i, 0, 500, 35);
+        }
+        for (int round = 0; round < 3; round++) { // warm-up rounds, the last one is reported
+            long begin = System.nanoTime();
+            for (int u = 0; u < userCount; u++) {
+                RegularUser user = new RegularUser("B" + u, "bench" + u, "hash", "bench@example.com");
+                for (Account account : template) {
+                    user.addAccount(account);
+                }
+            }
+            long doubling = System.nanoTime() - begin;
+
+            begin = System.nanoTime();
+            long checksum = 0;
+            for (int u = 0; u < userCount; u++) {
+                Account[] accounts = new Account[0];
+                for (Account account : template) {
+                    Account[] grown = new Account[accounts.length + 1];
+                    System.arraycopy(accounts, 0, grown, 0, accounts.length);
+                    grown[accounts.length] = account;
+                    accounts = grown;
+                }
+                checksum += accounts.length;
+            }
+            long growByOne = System.nanoTime() - begin;
+
+            if (round == 2) {
+                report("addAccount (doubling)", doubling);
+                report("grow-by-one baseline (" + checksum + " accounts)", growByOne);
+            }
+        }
+
+        // Phase 2: full load from files
+        if (!dataDir.mkdirs()) {
+            System.out.println("Could not create the data folder.");
+            return;
+        }
+        try (PrintWriter users = new PrintWriter(new FileWriter(new File(dataDir, "users.txt")));
+             PrintWriter accounts = new PrintWriter(new FileWriter(new File(dataDir, "accounts.txt")))) {
+            for (int u = 0; u < userCount; u++) {
+                users.println("REGULAR|L" + u + "|loader" + u + "|hash|loader" + u + "@example.com");
+                for (int a = 0; a < accountsPerUser; a++) {
+                    accounts.println("L" + u + "|CHECKING|CA-L" + u + "-" + (a + 1) + "|100.0|500.0|35.0");
+                }
+            }
+        }
+
+        long begin = System.nanoTime();
+        DataLoader.loadAllData();
+        report("DataLoader.loadAllData", System.nanoTime() - begin);
+        System.out.println("Loaded users: " + UserManager.getUserCount() + ", accounts of first user: " +
+                           UserManager.getUser(0).getAccountCount());
+    }
+
+    private static void report(String phase, long nanos) {
+        System.out.println(phase + ": " + String.format("%.1f", nanos / 1_000_000.0) + " ms");
+    }
+}
@@ -0,0 +1,81 @@
+package pennywise;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Random;
+import pennywise.batch.BatchTransferProcessor;
+
+/**
+ * BatchTransferBenchmark measures BatchTransferProcessor on a synthetic transfer file.
+ *
+ * Registers users with one checking account each, writes a file of random transfers
+ * between them into ./data (with a few invalid rows mixed in), then times validation
+ * and execution, including the result files and the single save. The file starts with
+ * a payroll from one account to 500 others; the rows past that account's free history
+ * slots are rejected during validation.
+ *
+ * Run it from an empty scratch directory: it refuses to touch an existing data folder.
+ *
+ * Usage: java -cp PennyWise/bin pennywise.BatchTransferBenchmark [transfers] [accounts]
+ */
+public class BatchTransferBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int transferCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int accountCount = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+
+        File dataDir = new File("data");
+        if (dataDir.exists()) {
+            System.out.println("A data folder already exists here. Run the benchmark from an empty directory.");
+            return;
+        }
+        if (!dataDir.mkdirs()) {
+            System.out.println("Could not create the data folder.");
+            return;
+        }
+
+        // Transfers per account stay well below the transaction history limit
+        for (int a = 0; a < accountCount; a++) {
+            RegularUser user = new RegularUser("T" + a, "transfer" + a, "hash", "transfer" + a + "@example.com");
+            user.addAccount(new CheckingAccount("CA-T" + a, 1_000, 500, 35));
+            UserManager.addRegularUser(user);
+        }
+
+        File file = new File(dataDir, "bench-transfers.csv");
+        Random random = new Random(42);
+        try (PrintWriter out = new PrintWriter(new FileWriter(file))) {
+            out.println("from,to,amount,reference");
+            for (int i = 1; i <= Math.min(500, accountCount - 1); i++) {
+                out.println("CA-T0,CA-T" + i + ",1.00,SALARY-" + i);
+            }
+            for (int i = 0; i < transferCount; i++) {
+                int from = random.nextInt(accountCount);
+                int to = random.nextInt(accountCount);
+                // One row in a thousand points at an unknown account
+                String toNumber = i % 1000 == 999 ? "CA-missing" : "CA-T" + to;
+                out.println("CA-T" + from + "," + toNumber + "," + (1 + random.nextInt(20_000)) / 100.0 + ",PAY-" + i);
+            }
+        }
+
+        System.out.println("Transfers: " + transferCount + ", accounts: " + accountCount +
+                           ", cores: " + Runtime.getRuntime().availableProcessors());
+        double before = SystemAggregates.snapshot().getTotalBalance();
+
+        long begin = System.nanoTime();
+        BatchTransferProcessor.TransferBatch batch = BatchTransferProcessor.load(file.getPath());
+        long loaded = System.nanoTime() - begin;
+        BatchTransferProcessor.execute(batch);
+        long total = System.nanoTime() - begin;
+
+        System.out.println("Load and validate: " + String.format("%.1f", loaded / 1_000_000.0) + " ms (" +
+                           batch.getValidRows() + " valid, " + batch.getInvalidRows() + " invalid)");
+        System.out.println("Execute: " + String.format("%.1f", batch.getElapsedNanos() / 1_000_000.0) + " ms in " +
+                           batch.getWaves() + " waves (" + batch.getDone() + " done, " +
+                           batch.getInsufficientFunds() + " insufficient funds, " + batch.getFailed() + " failed)");
+        System.out.println("Total with result files and save: " + String.format("%.1f", total / 1_000_000.0) + " ms");
+        System.out.println("Balance unchanged: " + (SystemAggregates.snapshot().getTotalBalance() == before) +
+                           ", aggregates match a full scan: " + SystemAggregates.verify().isEmpty());
+    }
+}
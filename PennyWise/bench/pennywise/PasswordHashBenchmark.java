@@ -0,0 +1,58 @@
+package pennywise;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PasswordHashBenchmark measures PasswordUtil hash and verify throughput.
+ *
+ * Each phase runs for a fixed time on one thread per core (or the given thread count)
+ * after a warm-up run, and reports total and per-thread operations per second.
+ *
+ * Usage: java -cp PennyWise/bin pennywise.PasswordHashBenchmark [threads] [seconds]
+ */
+public class PasswordHashBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        String stored = PasswordUtil.hashPassword("benchmark-password");
+
+        System.out.println("Threads: " + threads + ", seconds per phase: " + seconds);
+
+        // Warm-up so the JIT has compiled the hot paths before measuring
+        run(threads, 1, () -> PasswordUtil.hashPassword("benchmark-password"));
+        run(threads, 1, () -> PasswordUtil.verifyPassword("benchmark-password", stored));
+
+        report("hashPassword", threads, seconds,
+               run(threads, seconds, () -> PasswordUtil.hashPassword("benchmark-password")));
+        report("verifyPassword", threads, seconds,
+               run(threads, seconds, () -> PasswordUtil.verifyPassword("benchmark-password", stored)));
+    }
+
+    private static long run(int threads, int seconds, Runnable operation) throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        CountDownLatch done = new CountDownLatch(threads);
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        for (int t = 0; t < threads; t++) {
+            Thread thread = new Thread(() -> {
+                long count = 0;
+                while (System.nanoTime() < deadline) {
+                    operation.run();
+                    count++;
+                }
+                operations.add(count);
+                done.countDown();
+            });
+            thread.start();
+        }
+        done.await();
+        return operations.sum();
+    }
+
+    private static void report(String phase, int threads, int seconds, long operations) {
+        double perSecond = operations / (double) seconds;
+        System.out.println(phase + ": " + String.format("%,.0f", perSecond) + " ops/s total, " +
+                           String.format("%,.0f", perSecond / threads) + " ops/s per thread");
+    }
+}
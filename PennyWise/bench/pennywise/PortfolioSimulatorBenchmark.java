@@ -0,0 +1,47 @@
+package pennywise;
+
+import java.util.Random;
+import pennywise.batch.PortfolioSimulator;
+
+/**
+ * PortfolioSimulatorBenchmark measures PortfolioSimulator on a synthetic portfolio.
+ *
+ * Half of the accounts are savings accounts with random balances and rates, half are
+ * checking accounts of which one in ten is overdrawn. Each run simulates a what-if rate
+ * and fee next to the baseline.
+ *
+ * Usage: java -cp PennyWise/bin pennywise.PortfolioSimulatorBenchmark [accounts] [months]
+ */
+public class PortfolioSimulatorBenchmark {
+
+    public static void main(String[] args) {
+        int accountCount = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int months = args.length > 1 ? Integer.parseInt(args[1]) : 120;
+
+        Random random = new Random(42);
+        int savings = accountCount / 2;
+        int checking = accountCount - savings;
+        double[] savingsBalances = new double[savings];
+        double[] savingsRates = new double[savings];
+        double[] checkingBalances = new double[checking];
+        double[] checkingFees = new double[checking];
+        for (int i = 0; i < savings; i++) {
+            savingsBalances[i] = random.nextDouble() * 50_000;
+            savingsRates[i] = 0.01 + random.nextDouble() * 0.04;
+        }
+        for (int i = 0; i < checking; i++) {
+            checkingBalances[i] = random.nextInt(10) == 0 ? -random.nextDouble() * 500 : random.nextDouble() * 5_000;
+            checkingFees[i] = 35;
+        }
+        PortfolioSimulator.Portfolio portfolio =
+            new PortfolioSimulator.Portfolio(savingsBalances, savingsRates, checkingBalances, checkingFees);
+
+        System.out.println("Accounts: " + accountCount + ", months: " + months +
+                           ", cores: " + Runtime.getRuntime().availableProcessors());
+        for (int round = 1; round <= 5; round++) { // the first rounds warm up the JIT
+            PortfolioSimulator.SimulationResult result = PortfolioSimulator.simulate(portfolio, months, 0.035, 30);
+            System.out.println("Round " + round + ": " + String.format("%.1f", result.getElapsedNanos() / 1_000_000.0) +
+                               " ms (final balance " + String.format("%.2f", result.getEndingBalance()) + ")");
+        }
+    }
+}
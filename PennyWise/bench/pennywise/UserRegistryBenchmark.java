@@ -0,0 +1,84 @@
+package pennywise;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * UserRegistryBenchmark measures concurrent registration and lookup in UserManager.
+ *
+ * Registers one million users spread over several threads, checks that every
+ * registration was kept, then times username lookups from the same threads.
+ *
+ * Usage: java -cp PennyWise/bin pennywise.UserRegistryBenchmark [threads] [users]
+ */
+public class UserRegistryBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int totalUsers = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int perThread = totalUsers / threads;
+
+        System.out.println("Threads: " + threads + ", users: " + perThread * threads);
+
+        AtomicInteger rejected = new AtomicInteger();
+        long registerNanos = runOnThreads(threads, worker -> {
+            for (int i = 0; i < perThread; i++) {
+                String name = "user-" + worker + "-" + i;
+                if (!UserManager.addRegularUser(new RegularUser("ID" + worker + "-" + i, name, "hash", name + "@example.com"))) {
+                    rejected.incrementAndGet();
+                }
+            }
+        });
+        report("Registration", perThread * threads, registerNanos);
+        System.out.println("Registered: " + UserManager.getUserCount() + " (rejected " + rejected.get() + ")");
+
+        AtomicInteger missing = new AtomicInteger();
+        long lookupNanos = runOnThreads(threads, worker -> {
+            for (int i = 0; i < perThread; i++) {
+                // Look up another thread's users so reads cross shards
+                int other = (worker + 1) % threads;
+                if (UserManager.getRegularUserByUsername("user-" + other + "-" + i) == null) {
+                    missing.incrementAndGet();
+                }
+            }
+        });
+        report("Lookup", perThread * threads, lookupNanos);
+        System.out.println("Missing lookups: " + missing.get());
+    }
+
+    /**
+     * Helper interface for the work done by one benchmark thread.
+     */
+    private interface Worker {
+        void run(int worker);
+    }
+
+    private static long runOnThreads(int threads, Worker work) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            final int worker = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    work.run(worker);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            thread.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        return System.nanoTime() - begin;
+    }
+
+    private static void report(String phase, int operations, long nanos) {
+        double seconds = nanos / 1_000_000_000.0;
+        System.out.println(phase + ": " + String.format("%.1f", nanos / 1_000_000.0) + " ms, " +
+                           String.format("%,.0f", operations / seconds) + " ops/s");
+    }
+}
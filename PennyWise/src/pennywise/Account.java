@@ -1,5 +1,12 @@
 package pennywise;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import pennywise.data.TransactionArchive;
+
 /**
  * Abstract Account class represents the base account in PennyWise system.
  * Demonstrates INHERITANCE, POLYMORPHISM, ENCAPSULATION, and ARRAYS for transaction storage.
@@ -12,9 +19,22 @@ public abstract class Account {
     private double balance;
     private final String accountType; // Will be overridden by subclasses
     
-    // ARRAYS: Store transaction history
+    // ARRAYS: Store transaction history (hot tier: positions archivedCount..transactionCount-1)
     private final Transaction[] transactions;
-    private int transactionCount; // Track number of transactions
+    private int transactionCount; // Track number of transactions, archived ones included
+    private final BalanceHistoryIndex balanceIndex = new BalanceHistoryIndex(); // Sparse balance checkpoints
+
+    // Cold tier: positions 0..archivedCount-1 live in compressed archive segments
+    private int archivedCount;
+    private double archivedNetAmount;
+    private double archivedLastBalance;
+    private TransactionArchive.SegmentInfo[] archiveSegments = new TransactionArchive.SegmentInfo[0];
+    private int[] archiveSegmentEnds = new int[0]; // Position after the last transaction of each segment
+    private Transaction[] cachedSegment;           // Most recently fetched archive page
+    private int cachedSegmentNumber = -1;
+
+    // Counted in SystemAggregates while the account belongs to a registered user
+    private volatile boolean aggregated;
 
     /**
      * Constructor to initialize Account.
@@ -52,7 +72,31 @@ public abstract class Account {
     }
 
     public void setBalance(double balance) {
-        this.balance = balance;
+        changeBalance(balance);
+    }
+
+    /**
+     * VOID METHOD: Changes the balance and keeps the system-wide total in step.
+     * Every balance change after construction goes through here. It holds the account's
+     * monitor, like SystemAggregates when it starts or stops counting the account, so a
+     * change is either part of the counted balance or applied to it, never both or neither.
+     */
+    private void changeBalance(double newBalance) {
+        synchronized (this) {
+            double oldBalance = balance;
+            balance = newBalance;
+            if (aggregated) {
+                SystemAggregates.balanceChanged(oldBalance, newBalance);
+            }
+        }
+    }
+
+    boolean isAggregated() {
+        return aggregated;
+    }
+
+    void setAggregated(boolean aggregated) {
+        this.aggregated = aggregated;
     }
 
     public String getAccountType() {
@@ -71,11 +115,13 @@ public abstract class Account {
      * 
      * @param amount Amount to deposit
      * @return true if deposit successful, false otherwise
+     * @throws IllegalStateException if the transaction history is full (the balance is left unchanged)
      */
     public boolean deposit(double amount) {
         // SELECTION: if-else statement to validate deposit
         if (amount > 0) {
-            balance += amount;
+            requireTransactionCapacity();
+            changeBalance(balance + amount);
             recordTransaction(amount, AppConstants.TRANSACTION_DEPOSIT, getCurrentDate());
             return true;
         }
@@ -85,7 +131,8 @@ public abstract class Account {
     public boolean deposit(double amount, String reason) {
         // SELECTION: if-else statement to validate deposit
         if (amount > 0) {
-            balance += amount;
+            requireTransactionCapacity();
+            changeBalance(balance + amount);
             recordTransaction(amount, AppConstants.TRANSACTION_DEPOSIT + " " + reason, getCurrentDate());
             return true;
         }
@@ -98,11 +145,13 @@ public abstract class Account {
      * 
      * @param amount Amount to withdraw
      * @return true if withdrawal successful, false otherwise
+     * @throws IllegalStateException if the transaction history is full (the balance is left unchanged)
      */
     public boolean withdraw(double amount) {
         // SELECTION: if-else statement to validate withdrawal
         if (amount > 0 && balance >= amount) {
-            balance -= amount;
+            requireTransactionCapacity();
+            changeBalance(balance - amount);
             System.out.println("Withdrawal successful - requested: $" + InputValidator.formatMoney(amount));
             recordTransaction(amount, AppConstants.TRANSACTION_WITHDRAWAL, getCurrentDate());
             return true;
@@ -114,7 +163,8 @@ public abstract class Account {
     public boolean withdraw(double amount, String reason) {
         // SELECTION: if-else statement to validate withdrawal
         if (amount > 0 && balance >= amount) {
-            balance -= amount;
+            requireTransactionCapacity();
+            changeBalance(balance - amount);
             System.out.println("Withdrawal successful - requested: $" + InputValidator.formatMoney(amount));
             recordTransaction(amount, AppConstants.TRANSACTION_WITHDRAWAL + " " + reason, getCurrentDate());
             return true;
@@ -152,9 +202,11 @@ public abstract class Account {
             return false;
         }
         
-        // Perform the transfer
-        this.balance -= amount;
-        targetAccount.balance += amount;
+        // Perform the transfer (both histories need room before either balance changes)
+        this.requireTransactionCapacity();
+        targetAccount.requireTransactionCapacity();
+        this.changeBalance(this.balance - amount);
+        targetAccount.changeBalance(targetAccount.balance + amount);
         
         // Record transactions in both accounts using constants
         this.recordTransaction(amount, AppConstants.TRANSACTION_TRANSFER_OUT, getCurrentDate());
@@ -163,6 +215,94 @@ public abstract class Account {
         return true;
     }
 
+    /**
+     * VOID METHOD: Posts a system credit (such as interest) with a date supplied by the caller.
+     * Batch jobs format the date once per run instead of once per account. The history is
+     * checked for space before the balance changes, so a full history leaves the account untouched.
+     * 
+     * @param amount Amount to credit (positive)
+     * @param type Transaction type to record
+     * @param date Transaction date
+     * @throws IllegalStateException if the transaction history is full
+     */
+    protected final void postCredit(double amount, String type, String date) {
+        requireTransactionCapacity();
+        changeBalance(balance + amount);
+        recordTransaction(amount, type, date);
+    }
+
+    /**
+     * VOID METHOD: Posts a system debit (such as a fee) with a date supplied by the caller.
+     * Unlike withdraw, the balance is not required to cover the amount: fees are charged
+     * even when the account is already overdrawn.
+     * 
+     * @param amount Amount to debit (positive)
+     * @param type Transaction type to record
+     * @param date Transaction date
+     * @throws IllegalStateException if the transaction history is full
+     */
+    protected final void postDebit(double amount, String type, String date) {
+        requireTransactionCapacity();
+        changeBalance(balance - amount);
+        recordTransaction(amount, type, date);
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Transfers money with a date and reasons supplied by the caller, without console output.
+     * Batch transfers use this. As with interactive transfers the balance must cover the amount.
+     * Both histories are checked for space before either balance changes.
+     * 
+     * @param amount Amount to transfer (positive)
+     * @param targetAccount Account to credit
+     * @param debitReason Reason recorded after TRANSFER OUT on this account
+     * @param creditReason Reason recorded after TRANSFER IN on the target account
+     * @param date Transaction date
+     * @return true if transferred, false if the balance does not cover the amount
+     * @throws IllegalStateException if either transaction history is full
+     */
+    public final boolean postTransfer(double amount, Account targetAccount, String debitReason, String creditReason, String date) {
+        if (amount <= 0 || balance < amount) {
+            return false;
+        }
+        requireTransactionCapacity();
+        targetAccount.requireTransactionCapacity();
+        changeBalance(balance - amount);
+        targetAccount.changeBalance(targetAccount.balance + amount);
+        recordTransaction(amount, AppConstants.TRANSACTION_TRANSFER_OUT + " " + debitReason, date);
+        targetAccount.recordTransaction(amount, AppConstants.TRANSACTION_TRANSFER_IN + " " + creditReason, date);
+        return true;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Checks whether a transaction of a type was recorded on or after a day.
+     * Only the history from that day on is visited. Batch jobs use this to find accounts
+     * they have already processed for a period.
+     * 
+     * @param from First day to look at
+     * @param typePrefix Transaction type prefix to look for
+     * @return true if a matching transaction exists
+     */
+    public boolean hasTransactionSince(LocalDate from, String typePrefix) {
+        return transactions().between(from, null).ofTypePrefix(typePrefix).hasNext();
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Returns how many more transactions fit in memory before the next save.
+     * Batch jobs use this to reject work up front instead of failing halfway.
+     */
+    public int getFreeTransactionSlots() {
+        return transactions.length - (transactionCount - archivedCount);
+    }
+
+    /**
+     * VOID METHOD: Fails before any change if the transaction history has no free slot.
+     */
+    protected final void requireTransactionCapacity() {
+        if (getFreeTransactionSlots() <= 0) {
+            throw new IllegalStateException("Transaction history limit reached for account " + accountNumber);
+        }
+    }
+
     /**
      * VOID METHOD: Records a transaction in the transaction array.
      * Demonstrates ARRAYS usage.
@@ -172,10 +312,26 @@ public abstract class Account {
      * @param date Transaction date
      */
     protected final void recordTransaction(double amount, String type, String date) {
+        // The transaction carries the balance it left behind
+        storeTransaction(new Transaction(amount, type, date, balance));
+        balanceIndex.append(date, balance);
+    }
+
+    /**
+     * VOID METHOD: Appends a transaction to the transaction array.
+     */
+    private void storeTransaction(Transaction transaction) {
         // SELECTION: Check if array has space
-        if (transactionCount < transactions.length) {
-            transactions[transactionCount] = new Transaction(amount, type, date);
-            transactionCount++;
+        int hotCount = transactionCount - archivedCount;
+        if (hotCount < transactions.length) {
+            transactions[hotCount] = transaction;
+            // Same monitor as changeBalance, for the transaction total
+            synchronized (this) {
+                transactionCount++;
+                if (aggregated) {
+                    SystemAggregates.transactionsRecorded(1);
+                }
+            }
         }else {
             System.out.println("Transaction history is full. Cannot record more transactions.");
             throw new RuntimeException("Transaction history limit reached for account " + accountNumber);
@@ -185,9 +341,288 @@ public abstract class Account {
     /**
      * Public hook used by data loading to restore transactions.
      * Keeps the main recordTransaction method protected for normal flows.
+     * Call rebuildBalanceHistory() once all transactions of the account are restored.
      */
     public final void recordTransactionFromLoad(double amount, String type, String date) {
-        recordTransaction(amount, type, date);
+        recordTransactionFromLoad(amount, type, date, Double.NaN);
+    }
+
+    /**
+     * Public hook used by data loading to restore a transaction with its running balance.
+     * 
+     * @param balanceAfter Stored post-transaction balance, or NaN if the file did not have one
+     */
+    public final void recordTransactionFromLoad(double amount, String type, String date, double balanceAfter) {
+        storeTransaction(new Transaction(amount, type, date, balanceAfter));
+    }
+
+    /**
+     * VOID METHOD: Rebuilds running balances and balance checkpoints after loading.
+     * Transactions restored without a running balance get one by walking the history
+     * backwards from the current balance. Archived segments contribute the checkpoints
+     * stored in their summaries, so they are not read back.
+     */
+    public final void rebuildBalanceHistory() {
+        double running = balance;
+        // LOOPS: backwards pass fills in unknown running balances (hot tier only)
+        for (int i = transactionCount - archivedCount - 1; i >= 0; i--) {
+            Transaction t = transactions[i];
+            if (!t.hasBalanceAfter()) {
+                t = new Transaction(t.getAmount(), t.getType(), t.getDate(), running);
+                transactions[i] = t;
+            }
+            running = t.getBalanceAfter() - t.getSignedAmount();
+        }
+
+        balanceIndex.clear();
+        // LOOPS: one checkpoint at each end of every archived segment
+        for (int s = 0; s < archiveSegments.length; s++) {
+            TransactionArchive.SegmentInfo info = archiveSegments[s];
+            int start = s == 0 ? 0 : archiveSegmentEnds[s - 1];
+            long firstDay = BalanceHistoryIndex.toEpochDay(info.firstDate, 0);
+            balanceIndex.restoreCheckpoint(start, firstDay, info.firstBalance, info.firstOverdraftDays);
+            if (info.count > 1) {
+                balanceIndex.restoreCheckpoint(archiveSegmentEnds[s] - 1, BalanceHistoryIndex.toEpochDay(info.lastDate, firstDay),
+                                               info.lastBalance, info.lastOverdraftDays);
+            }
+        }
+        for (int i = 0; i < transactionCount - archivedCount; i++) {
+            balanceIndex.append(transactions[i].getDate(), transactions[i].getBalanceAfter());
+        }
+    }
+
+    /**
+     * VOID METHOD: Restores the archive summaries of the account during data loading.
+     * Archived transactions always come before the ones held in memory.
+     * 
+     * @param segments Segment summaries read from the archive index, oldest first
+     */
+    public final void restoreArchive(List<TransactionArchive.SegmentInfo> segments) {
+        int hotCount = transactionCount - archivedCount;
+        // LOOPS: register every archived segment
+        for (TransactionArchive.SegmentInfo info : segments) {
+            addArchiveSegment(info);
+        }
+        synchronized (this) {
+            int restored = archivedCount + hotCount - transactionCount;
+            transactionCount = archivedCount + hotCount;
+            if (aggregated) {
+                SystemAggregates.transactionsRecorded(restored);
+            }
+        }
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Moves transactions dated before a cutoff day to the archive.
+     * Small batches are kept in memory until at least ARCHIVE_MIN_SEGMENT_SIZE transactions
+     * are eligible, unless the in-memory history is full.
+     * 
+     * @param cutoff First day that stays in memory
+     * @return Number of transactions archived
+     * @throws IOException if the archive segment cannot be written
+     */
+    public int archiveTransactionsBefore(LocalDate cutoff) throws IOException {
+        int eligible = lastPositionOnOrBefore(cutoff.toEpochDay() - 1) + 1 - archivedCount;
+        int hotCount = transactionCount - archivedCount;
+        // SELECTION: nothing old enough, or too little to be worth a segment
+        if (eligible <= 0 || (eligible < AppConstants.ARCHIVE_MIN_SEGMENT_SIZE && hotCount < transactions.length)) {
+            return 0;
+        }
+
+        // SELECTION: the archive is keyed by account number, so only write to a directory this account owns
+        if (UserManager.findAccountByNumber(accountNumber) != this) {
+            throw new IOException("Account number " + accountNumber + " is used by another account; history kept in memory");
+        }
+        if (archiveSegments.length == 0 && TransactionArchive.exists(accountNumber)) {
+            throw new IOException("Archive directory of " + accountNumber + " holds files of another account; history kept in memory");
+        }
+
+        // Replay the overdraft counter across the segment, continuing from the previous one
+        boolean hasPrevious = archiveSegments.length > 0;
+        TransactionArchive.SegmentInfo previous = hasPrevious ? archiveSegments[archiveSegments.length - 1] : null;
+        long day = hasPrevious ? BalanceHistoryIndex.toEpochDay(previous.lastDate, 0) : 0;
+        double running = hasPrevious ? previous.lastBalance : 0;
+        long overdraftDays = hasPrevious ? previous.lastOverdraftDays : 0;
+        long firstOverdraftDays = 0;
+        double netAmount = 0;
+        // LOOPS: summarise the transactions leaving memory
+        for (int i = 0; i < eligible; i++) {
+            Transaction t = transactions[i];
+            long transactionDay = BalanceHistoryIndex.toEpochDay(t.getDate(), day);
+            if (hasPrevious || i > 0) {
+                overdraftDays += BalanceHistoryIndex.overdraftDaysBetween(running, day, transactionDay);
+            }
+            if (i == 0) {
+                firstOverdraftDays = overdraftDays;
+            }
+            day = transactionDay;
+            running = t.getBalanceAfter();
+            netAmount += t.getSignedAmount();
+        }
+
+        TransactionArchive.SegmentInfo info = new TransactionArchive.SegmentInfo(
+                eligible, netAmount,
+                transactions[0].getDate(), transactions[0].getBalanceAfter(), firstOverdraftDays,
+                transactions[eligible - 1].getDate(), running, overdraftDays);
+        TransactionArchive.writeSegment(accountNumber, archiveSegments.length, transactions, 0, eligible, info);
+
+        // ARRAYS: compact the hot tier
+        System.arraycopy(transactions, eligible, transactions, 0, hotCount - eligible);
+        Arrays.fill(transactions, hotCount - eligible, hotCount, null);
+        addArchiveSegment(info);
+        return eligible;
+    }
+
+    private void addArchiveSegment(TransactionArchive.SegmentInfo info) {
+        int segments = archiveSegments.length;
+        archiveSegments = Arrays.copyOf(archiveSegments, segments + 1);
+        archiveSegmentEnds = Arrays.copyOf(archiveSegmentEnds, segments + 1);
+        archiveSegments[segments] = info;
+        archivedCount += info.count;
+        archiveSegmentEnds[segments] = archivedCount;
+        archivedNetAmount += info.netAmount;
+        archivedLastBalance = info.lastBalance;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Fetches an archived transaction, loading its segment on demand.
+     * Only the most recently used segment is kept in memory.
+     * 
+     * @throws UncheckedIOException if the segment cannot be read or is shorter than its index says
+     */
+    private Transaction getArchivedTransaction(int position) {
+        // Binary search for the first segment ending after the position
+        int low = 0;
+        int high = archiveSegmentEnds.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (archiveSegmentEnds[mid] <= position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        if (cachedSegmentNumber != low) {
+            try {
+                cachedSegment = TransactionArchive.readSegment(accountNumber, low);
+                cachedSegmentNumber = low;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read archive segment " + low + " of account "
+                                               + accountNumber + ": " + e.getMessage(), e);
+            }
+        }
+        int offset = position - (low == 0 ? 0 : archiveSegmentEnds[low - 1]);
+        if (offset >= cachedSegment.length) {
+            throw new UncheckedIOException(new IOException("Archive segment " + low + " of account " + accountNumber
+                                           + " holds " + cachedSegment.length + " transactions, its index says "
+                                           + archiveSegments[low].count));
+        }
+        return cachedSegment[offset];
+    }
+
+    /**
+     * Helper class describing the last transaction on or before a given day.
+     */
+    private static final class HistoryPoint {
+        int position;
+        long day;
+        double balance;
+        long overdraftDays; // Days in overdraft accumulated up to this transaction
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Finds the state of the account at the end of a day.
+     * Binary searches the checkpoints, then replays at most one checkpoint interval.
+     * 
+     * @param day Epoch day to look up
+     * @return HistoryPoint, or null if no transaction happened on or before the day
+     */
+    private HistoryPoint locate(long day) {
+        int slot = balanceIndex.floorCheckpoint(day);
+        if (slot == -1) {
+            return null;
+        }
+
+        HistoryPoint point = new HistoryPoint();
+        point.position = balanceIndex.getCheckpointPosition(slot);
+        point.day = balanceIndex.getCheckpointDay(slot);
+        point.balance = balanceIndex.getCheckpointBalance(slot);
+        point.overdraftDays = balanceIndex.getCheckpointOverdraftDays(slot);
+
+        int end = balanceIndex.getIntervalEnd(slot);
+        // LOOPS: replay the remainder of the checkpoint interval
+        for (int i = balanceIndex.getCheckpointPosition(slot) + 1; i < end; i++) {
+            Transaction t = getTransaction(i);
+            long transactionDay = BalanceHistoryIndex.toEpochDay(t.getDate(), point.day);
+            if (transactionDay > day) {
+                break;
+            }
+            point.overdraftDays += BalanceHistoryIndex.overdraftDaysBetween(point.balance, point.day, transactionDay);
+            point.position = i;
+            point.day = transactionDay;
+            point.balance = t.getBalanceAfter();
+        }
+        return point;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Position of the last transaction on or before a day.
+     * 
+     * @param day Epoch day
+     * @return Transaction position, or -1 if none
+     */
+    int lastPositionOnOrBefore(long day) {
+        HistoryPoint point = locate(day);
+        return point == null ? -1 : point.position;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Position of the first transaction on or after a day.
+     * 
+     * @param day Epoch day
+     * @return Transaction position (equal to the transaction count if none)
+     */
+    int firstPositionOnOrAfter(long day) {
+        return lastPositionOnOrBefore(day - 1) + 1;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Opens a cursor over the transaction history.
+     * The cursor reads the history in place; see TransactionCursor for paging and filters.
+     * 
+     * @return new TransactionCursor, oldest transaction first
+     */
+    public TransactionCursor transactions() {
+        return new TransactionCursor(this);
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Returns the balance at the end of a given day.
+     * 
+     * @param date Day to look up
+     * @return Balance after the last transaction on or before that day (0 before the first transaction)
+     * @throws UncheckedIOException if archived history is needed and cannot be read
+     */
+    public double getBalanceAsOf(LocalDate date) {
+        HistoryPoint point = locate(date.toEpochDay());
+        return point == null ? 0 : point.balance;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Counts the days the account spent below zero up to a given day.
+     * 
+     * @param date Day to count up to
+     * @return Number of days with a negative end-of-day balance
+     * @throws UncheckedIOException if archived history is needed and cannot be read
+     */
+    public long getDaysInOverdraft(LocalDate date) {
+        long day = date.toEpochDay();
+        HistoryPoint point = locate(day);
+        if (point == null) {
+            return 0;
+        }
+        return point.overdraftDays + BalanceHistoryIndex.overdraftDaysBetween(point.balance, point.day, day);
     }
 
     /**
@@ -202,9 +637,13 @@ public abstract class Account {
         if (transactionCount == 0) {
             System.out.println("No transactions yet.");
         } else {
-            for (int i = 0; i < transactionCount; i++) {
-                System.out.print("  ");
-                transactions[i].displayTransaction();
+            try {
+                for (Transaction transaction : transactions()) {
+                    System.out.print("  ");
+                    transaction.displayTransaction();
+                }
+            } catch (UncheckedIOException e) {
+                System.out.println("Error: " + e.getMessage());
             }
         }
         System.out.println("=========================================");
@@ -217,15 +656,42 @@ public abstract class Account {
         return transactionCount;
     }
 
+    /**
+     * VALUE RETURNING METHOD: Returns the number of transactions moved to the archive.
+     * These occupy positions 0 to getArchivedTransactionCount() - 1.
+     */
+    public int getArchivedTransactionCount() {
+        return archivedCount;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Returns the net effect of all archived transactions on the balance.
+     */
+    public double getArchivedNetAmount() {
+        return archivedNetAmount;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Returns the balance after the last archived transaction.
+     */
+    public double getArchivedLastBalance() {
+        return archivedLastBalance;
+    }
+
     /**
      * VALUE RETURNING METHOD: Gets a transaction at a specific index.
      * 
      * @param index Index of the transaction
      * @return Transaction object or null if not found
+     * @throws UncheckedIOException if the transaction is archived and its segment cannot be read
      */
     public Transaction getTransaction(int index) {
-        if (index >= 0 && index < transactionCount) {
-            return transactions[index];
+        // SELECTION: archived positions are fetched from disk on demand
+        if (index >= 0 && index < archivedCount) {
+            return getArchivedTransaction(index);
+        }
+        if (index >= archivedCount && index < transactionCount) {
+            return transactions[index - archivedCount];
         }
         return null;
     }
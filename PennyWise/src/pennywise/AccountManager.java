@@ -2,6 +2,7 @@ package pennywise;
 
 import java.util.Scanner;
 import pennywise.config.SystemConfiguration;
+import pennywise.data.TransactionArchive;
 
 /**
  * AccountManager class handles all account-related operations.
@@ -29,14 +30,14 @@ public class AccountManager {
             case "1":
                 System.out.println("Savings Account created.");
                 return new SavingsAccount(
-                    AppConstants.SAVINGS_ACCOUNT_PREFIX + userId + "-" + (accountCount + 1),
+                    nextAccountNumber(AppConstants.SAVINGS_ACCOUNT_PREFIX, userId, accountCount),
                     AppConstants.DEFAULT_INITIAL_BALANCE,
                     SystemConfiguration.getInstance().getDefaultSavingsInterestRate()
                 );
             case "2":
                 System.out.println("Checking Account created.");
                 return new CheckingAccount(
-                    AppConstants.CHECKING_ACCOUNT_PREFIX + userId + "-" + (accountCount + 1),
+                    nextAccountNumber(AppConstants.CHECKING_ACCOUNT_PREFIX, userId, accountCount),
                     AppConstants.DEFAULT_INITIAL_BALANCE,
                     SystemConfiguration.getInstance().getDefaultCheckingOverdraftLimit(),
                     SystemConfiguration.getInstance().getDefaultCheckingOverdraftFee()
@@ -44,13 +45,34 @@ public class AccountManager {
             default:
                 System.out.println("Invalid option. Savings Account created by default.");
                 return new SavingsAccount(
-                    AppConstants.SAVINGS_ACCOUNT_PREFIX + userId + "-" + (accountCount + 1),
+                    nextAccountNumber(AppConstants.SAVINGS_ACCOUNT_PREFIX, userId, accountCount),
                     AppConstants.DEFAULT_INITIAL_BALANCE,
                     SystemConfiguration.getInstance().getDefaultSavingsInterestRate()
                 );
         }
     }
     
+    /**
+     * VALUE RETURNING METHOD: Builds the number for a new account.
+     * User IDs are not unique, so the sequence number is raised until the number is not
+     * used by a registered account and has no archived history left on disk.
+     * 
+     * @param prefix Account type prefix
+     * @param userId User ID of the owner
+     * @param accountCount Current number of accounts of the owner
+     * @return Account number not in use
+     */
+    private static String nextAccountNumber(String prefix, String userId, int accountCount) {
+        int sequence = accountCount + 1;
+        String accountNumber = prefix + userId + "-" + sequence;
+        // LOOPS: skip numbers that are taken
+        while (UserManager.findAccountByNumber(accountNumber) != null || TransactionArchive.exists(accountNumber)) {
+            sequence++;
+            accountNumber = prefix + userId + "-" + sequence;
+        }
+        return accountNumber;
+    }
+    
     /**
      * VALUE RETURNING METHOD: Selects an account from a user's account list.
      * Extracts common account selection pattern.
@@ -151,18 +173,11 @@ public class AccountManager {
             return null;
         }
         
-        Account[] accounts = user.getAccounts();
-        if (hasNoAccounts(accounts)) {
+        // Global account-number index, restricted to this user's accounts
+        if (UserManager.findAccountOwner(accountNumber) != user) {
             return null;
         }
-        
-        for (Account account : accounts) {
-            if (account != null && account.getAccountNumber().equals(accountNumber)) {
-                return account;
-            }
-        }
-        
-        return null;
+        return UserManager.findAccountByNumber(accountNumber);
     }
     
     /**
@@ -6,11 +6,23 @@ package pennywise;
  * 
  * Administrators have elevated permissions to view and modify all user accounts.
  */
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 import pennywise.data.DataStorage;
 
 public class Admin extends User {
 
+    // For demo, a default super admin is created once with a hashed password
+    // In production, this would be loaded from a secure admin database
+    private static Admin defaultAdmin;
+
+    // Token of the running admin session, null when logged out
+    protected String sessionToken;
+
     /**
      * Constructor to initialize an Admin.
      * 
@@ -44,6 +56,8 @@ public class Admin extends User {
         System.out.println("2. Modify user information");
         System.out.println("3. Adjust account balances (for corrections)");
         System.out.println("4. Delete user accounts");
+        System.out.println("5. Bulk delete user accounts");
+        System.out.println("6. Search users by username, email or ID");
         System.out.println("-------------------------");
     }
 
@@ -57,12 +71,15 @@ public class Admin extends User {
         System.out.print("Enter Admin Password: ");
         String password = scanner.nextLine();
 
-        // For demo, create a default super admin with hashed password
-        // In production, this would be loaded from a secure admin database
-        String adminPassword = PasswordUtil.hashPassword("admin123");
-        Admin admin = new SuperAdmin("admin001", "admin", adminPassword, "admin@pennywise.com");
+        Admin admin = getDefaultAdmin();
+
+        if (!LoginRateLimiter.tryAcquire(username, LoginRateLimiter.CONSOLE_SOURCE)) {
+            System.out.println("Too many login attempts. Please wait a moment and try again.");
+            return;
+        }
 
-        if (username.equals(admin.getUsername()) && PasswordUtil.verifyPassword(password, admin.getPassword())) {
+        if (username.equals(admin.getUsername()) && PasswordVerifier.verify(password, admin.getPassword())) {
+            admin.sessionToken = SessionManager.createSession(admin);
             admin.displayDashboard();
             admin.runAdminSession(scanner);
         } else {
@@ -70,6 +87,40 @@ public class Admin extends User {
         }
     }
 
+    /**
+     * VALUE RETURNING METHOD: Gets the default admin, hashing its password only once.
+     */
+    private static Admin getDefaultAdmin() {
+        if (defaultAdmin == null) {
+            String adminPassword = PasswordUtil.hashPassword("admin123");
+            defaultAdmin = new SuperAdmin("admin001", "admin", adminPassword, "admin@pennywise.com");
+        }
+        return defaultAdmin;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Checks the admin session before an operation runs.
+     * A token lookup replaces checking the admin password again.
+     *
+     * @return true if the session has expired and the admin must log in again
+     */
+    protected boolean sessionExpired() {
+        if (SessionManager.validateSession(sessionToken) == this) {
+            return false;
+        }
+        sessionToken = null;
+        System.out.println("Admin session expired. Please log in again.");
+        return true;
+    }
+
+    /**
+     * VOID METHOD: Ends the admin session.
+     */
+    protected void endSession() {
+        SessionManager.invalidateSession(sessionToken);
+        sessionToken = null;
+    }
+
     /**
      * INSTANCE METHOD: Run the interactive admin session (basic admin).
      */
@@ -81,17 +132,25 @@ public class Admin extends User {
             System.out.println("2. Modify User Information");
             System.out.println("3. Adjust Account Balance");
             System.out.println("4. Delete User Account");
-            System.out.println("5. Logout");
+            System.out.println("5. Bulk Delete User Accounts");
+            System.out.println("6. Search Users");
+            System.out.println("7. Logout");
             System.out.print("Select option: ");
 
             String choice = scanner.nextLine();
+            if (sessionExpired()) {
+                return;
+            }
             switch (choice) {
-                case "1" : displayAllUsers(); break;
+                case "1" : displayAllUsers(scanner); break;
                 case "2" : modifyUserInformation(scanner); break;
                 case "3" : adjustAccountBalance(scanner); break;
                 case "4" : deleteUserAccount(scanner); break;
-                case "5" : {
+                case "5" : bulkDeleteUsers(scanner); break;
+                case "6" : searchUsers(scanner); break;
+                case "7" : {
                     inAdmin = false;
+                    endSession();
                     System.out.println("Admin logged out.");
                     break;
                 }
@@ -102,9 +161,84 @@ public class Admin extends User {
 
     // ---------------- Admin helper methods ----------------
 
-    protected void displayAllUsers() {
-        // Delegate to UserManager for displaying all users
-        UserManager.displayAllUsers();
+    protected void displayAllUsers(Scanner scanner) {
+        System.out.println("\n========== All Users ==========");
+        int userCount = UserManager.getRegisteredUserCount();
+        if (userCount == 0) {
+            System.out.println("No users registered.");
+        } else {
+            System.out.println(userCount + " user(s) registered.");
+            int next = 0;
+            boolean morePages = true;
+            // LOOPS: show one page at a time, delegating the listing to UserManager
+            while (morePages) {
+                next = UserManager.displayUsers(next, AppConstants.USER_PAGE_SIZE);
+                morePages = next < UserManager.getUserCount()
+                            && InputValidator.getConfirmation(scanner, "Show more users? (yes/no): ");
+            }
+        }
+        System.out.println("==============================");
+    }
+
+    protected void searchUsers(Scanner scanner) {
+        System.out.println("\n--- Search Users ---");
+        System.out.println("1. By username prefix (e.g. joh*)");
+        System.out.println("2. By email or email domain (e.g. john@example.com, @example.com, @exam*)");
+        System.out.println("3. By user ID");
+        System.out.print("Select option (1-3): ");
+        String choice = scanner.nextLine().trim();
+        System.out.print("Enter search text: ");
+        String query = scanner.nextLine().trim();
+
+        switch (choice) {
+            case "1" : {
+                String prefix = query.endsWith("*") ? query.substring(0, query.length() - 1) : query;
+                String cursor = null;
+                boolean morePages = true;
+                // LOOPS: fetch pages from the username index until the user stops
+                while (morePages) {
+                    UserManager.UserSearchPage page = UserManager.findUsersByUsernamePrefix(prefix, cursor, AppConstants.USER_PAGE_SIZE);
+                    displaySearchResults(page.getUsers(), cursor == null);
+                    cursor = page.getNextCursor();
+                    morePages = page.hasMore() && InputValidator.getConfirmation(scanner, "Show more results? (yes/no): ");
+                }
+                break;
+            }
+            case "2" : {
+                if (query.indexOf('@') > 0) {
+                    // Full email address: exact lookup
+                    RegularUser user = UserManager.getRegularUserByEmail(query);
+                    displaySearchResults(user == null ? new ArrayList<>() : List.of(user), true);
+                    break;
+                }
+                String domain = query.startsWith("@") ? query.substring(1) : query;
+                String cursor = null;
+                boolean morePages = true;
+                // LOOPS: fetch pages from the email index until the user stops
+                while (morePages) {
+                    UserManager.UserSearchPage page = UserManager.findUsersByEmailDomain(domain, cursor, AppConstants.USER_PAGE_SIZE);
+                    displaySearchResults(page.getUsers(), cursor == null);
+                    cursor = page.getNextCursor();
+                    morePages = page.hasMore() && InputValidator.getConfirmation(scanner, "Show more results? (yes/no): ");
+                }
+                break;
+            }
+            case "3" : {
+                RegularUser user = UserManager.getRegularUserByUserId(query);
+                displaySearchResults(user == null ? new ArrayList<>() : List.of(user), true);
+                break;
+            }
+            default : System.out.println("Invalid option.");
+        }
+    }
+
+    private void displaySearchResults(List<RegularUser> results, boolean firstPage) {
+        if (results.isEmpty() && firstPage) {
+            System.out.println("No matching users found.");
+        }
+        for (RegularUser user : results) {
+            System.out.println("  " + user.getUsername() + " (ID: " + user.getUserId() + ") - " + user.getEmail());
+        }
     }
 
     protected RegularUser findRegularUserByUsername(String username) {
@@ -130,7 +264,10 @@ public class Admin extends User {
                 case "1" : {
                     System.out.print("Enter new username: ");
                     String newUsername = scanner.nextLine();
-                    user.setUsername(newUsername);
+                    if (!UserManager.renameRegularUser(user, newUsername)) {
+                        System.out.println("Username already exists. Please choose a different username.");
+                        break;
+                    }
                     System.out.println("Username updated successfully!");
                     DataStorage.saveAllData(); // Save after user modification
                     break;
@@ -138,7 +275,7 @@ public class Admin extends User {
                 case "2" : {
                     System.out.print("Enter new email: ");
                     String newEmail = scanner.nextLine();
-                    user.setEmail(newEmail);
+                    UserManager.changeEmail(user, newEmail);
                     System.out.println("Email updated successfully!");
                     DataStorage.saveAllData(); // Save after user modification
                     break;
@@ -146,7 +283,13 @@ public class Admin extends User {
                 case "3" : {
                     String newPassword = InputValidator.getValidatedPassword(scanner, "Enter new password: ");
                     // Hash the password before storing
-                    user.setPassword(PasswordUtil.hashPassword(newPassword));
+                    String hashedPassword = newPassword == null ? null : PasswordVerifier.hash(newPassword);
+                    if (hashedPassword == null) {
+                        System.out.println("Password not changed.");
+                        break;
+                    }
+                    user.setPassword(hashedPassword);
+                    SessionManager.invalidateUserSessions(user);
                     System.out.println("Password updated successfully!");
                     DataStorage.saveAllData(); // Save after user modification
                     break;
@@ -207,7 +350,7 @@ public class Admin extends User {
                     System.out.print("Enter amount to add: $");
                     double amount = InputValidator.getValidatedDouble(scanner, "Invalid amount. Please enter a valid number.");
                     if (amount > 0) {
-                        account.deposit(amount, "ADMIN ADDED CASH");
+                        TransactionPipeline.deposit(account, amount, "ADMIN ADDED CASH");
                         System.out.println("Amount added. New Balance: $" + InputValidator.formatMoney(account.getBalance()));
                         DataStorage.saveAllData(); // Save after balance adjustment
                     } else {
@@ -219,7 +362,7 @@ public class Admin extends User {
                     System.out.print("Enter amount to subtract: $");
                     double amount = InputValidator.getValidatedDouble(scanner, "Invalid amount. Please enter a valid number.");
                     if (amount > 0) {
-                        account.withdraw(amount, "ADMIN REMOVED CASH");
+                        TransactionPipeline.withdraw(account, amount, "ADMIN REMOVED CASH");
                         System.out.println("Amount subtracted. New Balance: $" + InputValidator.formatMoney(account.getBalance()));
                         DataStorage.saveAllData(); // Save after balance adjustment
                     } else {
@@ -255,19 +398,7 @@ public class Admin extends User {
         System.out.print("Enter username of user to delete: ");
         String username = scanner.nextLine();
 
-        int userIndex = -1;
-        for (int i = 0; i < UserManager.getUserCount(); i++) {
-            User u = UserManager.getUser(i);
-            if (u instanceof RegularUser) {
-                RegularUser user = (RegularUser) u;
-                if (user.getUsername().equals(username)) {
-                    userIndex = i;
-                    break;
-                }
-            }
-        }
-
-        if (userIndex != -1) {
+        if (UserManager.usernameExists(username)) {
             System.out.print("Are you sure you want to delete user '" + username + "'? (yes/no): ");
             String confirmation = scanner.nextLine();
             if (confirmation.equalsIgnoreCase("yes")) {
@@ -285,4 +416,49 @@ public class Admin extends User {
         }
     }
 
+    protected void bulkDeleteUsers(Scanner scanner) {
+        System.out.println("\n--- Bulk Delete User Accounts ---");
+        System.out.print("Enter usernames separated by commas, or @file to read one username per line: ");
+        String input = scanner.nextLine().trim();
+
+        List<String> usernames = new ArrayList<>();
+        // SELECTION: read the list from a file or from the typed line
+        if (input.startsWith("@")) {
+            try (BufferedReader reader = new BufferedReader(new FileReader(input.substring(1).trim()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.trim().isEmpty()) {
+                        usernames.add(line.trim());
+                    }
+                }
+            } catch (IOException e) {
+                System.out.println("Could not read username file: " + e.getMessage());
+                return;
+            }
+        } else {
+            for (String name : input.split(",")) {
+                if (!name.trim().isEmpty()) {
+                    usernames.add(name.trim());
+                }
+            }
+        }
+
+        if (usernames.isEmpty()) {
+            System.out.println("No usernames entered.");
+            return;
+        }
+
+        System.out.print("Are you sure you want to delete " + usernames.size() + " user(s)? (yes/no): ");
+        String confirmation = scanner.nextLine();
+        if (confirmation.equalsIgnoreCase("yes")) {
+            int removed = UserManager.removeRegularUsers(usernames);
+            if (removed > 0) {
+                DataStorage.saveAllData(); // One save for the whole batch
+            }
+            System.out.println(removed + " user(s) deleted, " + (usernames.size() - removed) + " not found.");
+        } else {
+            System.out.println("Deletion cancelled.");
+        }
+    }
+
 }
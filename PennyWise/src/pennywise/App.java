@@ -1,6 +1,8 @@
 package pennywise;
 
+import java.time.LocalDate;
 import java.util.Scanner;
+import pennywise.batch.BatchScheduler;
 import pennywise.data.DataLoader;
 import pennywise.data.DataStorage;
 
@@ -71,11 +73,27 @@ public class App {
      * VALUE RETURNING METHOD: Main method - entry point of the application.
      */
     public static void main(String[] args) {
+        // SELECTION: optional execution modes passed on the command line
+        for (String arg : args) {
+            if (arg.startsWith("--sharded")) {
+                int workers = Runtime.getRuntime().availableProcessors();
+                if (arg.startsWith("--sharded=")) {
+                    try {
+                        workers = Integer.parseInt(arg.substring("--sharded=".length()));
+                    } catch (NumberFormatException e) {
+                        System.out.println("Invalid worker count '" + arg + "', using " + workers + ".");
+                    }
+                }
+                TransactionPipeline.start(workers);
+                System.out.println("Sharded transaction mode enabled (" + TransactionPipeline.getWorkerCount() + " workers).");
+            }
+        }
+        
         // Load saved data on startup
         if (DataStorage.dataExists()) {
             System.out.println("Loading saved data...");
             if (DataLoader.loadAllData()) {
-                System.out.println("Data loaded successfully! (" + UserManager.getUserCount() + " users)");
+                System.out.println("Data loaded successfully! (" + UserManager.getRegisteredUserCount() + " users)");
             } else {
                 System.out.println("Warning: Failed to load some data.");
             }
@@ -91,6 +109,9 @@ public class App {
             // LOOPS: while loop for main menu system
             boolean running = true;
             while (running) {
+                // Scheduled interest and fee batches run here, between sessions
+                BatchScheduler.runDueJobs(LocalDate.now());
+                
                 ui.displayMainMenu();
                 System.out.print("Please select an option (1-3): ");
                 
@@ -101,7 +122,8 @@ public class App {
                     case 1 : ui.regularUserMode(); break; // Delegate to UserInterface
                     case 2 : Admin.launchAdmin(scanner); break; // Admin mode
                     case 3 : {
-                        // Save data before exiting
+                        // Finish in-flight commands, then save data before exiting
+                        TransactionPipeline.shutdown();
                         System.out.println("Saving data...");
                         if (DataStorage.saveAllData()) {
                             System.out.println("Data saved successfully!");
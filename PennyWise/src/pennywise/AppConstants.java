@@ -8,9 +8,10 @@ package pennywise;
 public class AppConstants {
     
     // Array size limits
-    public static final int MAX_USERS = 100;
     public static final int MAX_TRANSACTIONS_PER_ACCOUNT = 100;
     public static final int MAX_ACCOUNTS_PER_USER = 10;
+    public static final int TRANSACTION_PAGE_SIZE = 10;
+    public static final int USER_PAGE_SIZE = 20;
     
     // Default account values
     public static final double DEFAULT_INITIAL_BALANCE = 1000.0;
@@ -35,11 +36,44 @@ public class AppConstants {
     public static final String TRANSACTION_TRANSFER_IN = "TRANSFER IN";
     public static final String TRANSACTION_TRANSFER_OUT = "TRANSFER OUT";
     public static final String TRANSACTION_INITIAL_DEPOSIT = "INITIAL DEPOSIT";
+    public static final String TRANSACTION_INTEREST = TRANSACTION_DEPOSIT + " INTEREST";
+    public static final String TRANSACTION_OVERDRAFT_FEE = TRANSACTION_WITHDRAWAL + " OVERDRAFT FEE";
     
     // Account types
     public static final String ACCOUNT_TYPE_SAVINGS = "SAVINGS";
     public static final String ACCOUNT_TYPE_CHECKING = "CHECKING";
     
+    // Sharded transaction pipeline
+    public static final int PIPELINE_QUEUE_CAPACITY = 1024;
+    
+    // Transaction archive
+    public static final int DEFAULT_ARCHIVE_HORIZON_DAYS = 365; // 0 disables archiving
+    public static final int ARCHIVE_MIN_SEGMENT_SIZE = 16;
+    
+    // Password hashing (PBKDF2 iterations)
+    public static final int DEFAULT_PASSWORD_HASH_ITERATIONS = 100_000;
+    public static final int MIN_PASSWORD_HASH_ITERATIONS = 10_000;
+    public static final int MAX_PASSWORD_HASH_ITERATIONS = 10_000_000; // stored costs above this are refused
+    public static final int PASSWORD_VERIFIER_QUEUE_CAPACITY = 64;
+    
+    // Login sessions
+    public static final int SESSION_TTL_MINUTES = 15; // idle time before a session expires
+    public static final int MAX_ACTIVE_SESSIONS = 10_000;
+    public static final int SESSION_TOKEN_BYTES = 32;
+    
+    // Login throttling (token buckets per username and per source)
+    public static final int LOGIN_USER_BURST = 5;
+    public static final int LOGIN_USER_REFILL_SECONDS = 30;   // one attempt regained every 30s
+    public static final int LOGIN_SOURCE_BURST = 20;
+    public static final int LOGIN_SOURCE_REFILL_SECONDS = 3;
+    public static final int LOGIN_LIMITER_MAX_BUCKETS = 100_000;
+    
+    // Batch jobs
+    public static final int BATCH_SPLIT_THRESHOLD = 1024; // accounts handled by one fork/join task
+    public static final int DEFAULT_BATCH_RUN_DAY = 0; // day of month for scheduled runs, 0 = manual only
+    public static final int MAX_BATCH_RUN_DAY = 28;    // every month has this day
+    public static final int MAX_SIMULATION_MONTHS = 600; // portfolio simulation horizon (50 years)
+    
     // Date format
     public static final String DATE_FORMAT = "MM/dd/yyyy";
     
@@ -0,0 +1,181 @@
+package pennywise;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+/**
+ * BalanceHistoryIndex class keeps a sparse index of balance checkpoints for one account.
+ * Demonstrates ARRAYS and ENCAPSULATION.
+ *
+ * Every CHECKPOINT_INTERVAL-th transaction stores its position, day, running balance and
+ * the number of days the account has spent in overdraft so far. A point-in-time query
+ * binary searches the checkpoints and then replays at most one interval of transactions.
+ */
+class BalanceHistoryIndex {
+
+    // Number of transactions between two checkpoints
+    static final int CHECKPOINT_INTERVAL = 16;
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern(AppConstants.DATE_FORMAT);
+
+    // ARRAYS: Parallel checkpoint arrays, grown by doubling
+    private int[] positions = new int[4];
+    private long[] days = new long[4];
+    private double[] balances = new double[4];
+    private long[] overdraftDays = new long[4];
+    private int size;
+
+    // Running state of the most recently appended transaction
+    private int appendedCount;
+    private long lastDay;
+    private double lastBalance;
+    private long cumulativeOverdraftDays;
+
+    /**
+     * VOID METHOD: Registers the next transaction of the account.
+     * An unparsable date is treated as the same day as the previous transaction.
+     *
+     * @param date Transaction date in AppConstants.DATE_FORMAT
+     * @param balanceAfter Account balance right after the transaction
+     */
+    void append(String date, double balanceAfter) {
+        append(toEpochDay(date, lastDay), balanceAfter);
+    }
+
+    /**
+     * VOID METHOD: Registers the next transaction of the account.
+     *
+     * @param day Epoch day of the transaction
+     * @param balanceAfter Account balance right after the transaction
+     */
+    void append(long day, double balanceAfter) {
+        if (appendedCount > 0) {
+            // Days between two transactions count as overdraft if the earlier one left the balance negative
+            cumulativeOverdraftDays += overdraftDaysBetween(lastBalance, lastDay, day);
+        }
+        if (appendedCount % CHECKPOINT_INTERVAL == 0) {
+            addCheckpoint(appendedCount, day, balanceAfter, cumulativeOverdraftDays);
+        }
+        appendedCount++;
+        lastDay = day;
+        lastBalance = balanceAfter;
+    }
+
+    /**
+     * VOID METHOD: Restores a checkpoint whose transaction is not replayed (e.g. archived history).
+     * Following appends continue from this checkpoint's state.
+     *
+     * @param position Position of the transaction
+     * @param day Epoch day of the transaction
+     * @param balanceAfter Account balance right after the transaction
+     * @param overdraft Days in overdraft accumulated up to the transaction
+     */
+    void restoreCheckpoint(int position, long day, double balanceAfter, long overdraft) {
+        addCheckpoint(position, day, balanceAfter, overdraft);
+        appendedCount = position + 1;
+        lastDay = day;
+        lastBalance = balanceAfter;
+        cumulativeOverdraftDays = overdraft;
+    }
+
+    /**
+     * VOID METHOD: Forgets all checkpoints (used before rebuilding the index).
+     */
+    void clear() {
+        size = 0;
+        appendedCount = 0;
+        lastDay = 0;
+        lastBalance = 0;
+        cumulativeOverdraftDays = 0;
+    }
+
+    private void addCheckpoint(int position, long day, double balance, long overdraft) {
+        if (size == positions.length) {
+            int newLength = positions.length * 2;
+            positions = Arrays.copyOf(positions, newLength);
+            days = Arrays.copyOf(days, newLength);
+            balances = Arrays.copyOf(balances, newLength);
+            overdraftDays = Arrays.copyOf(overdraftDays, newLength);
+        }
+        positions[size] = position;
+        days[size] = day;
+        balances[size] = balance;
+        overdraftDays[size] = overdraft;
+        size++;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Finds the last checkpoint on or before a day.
+     * Binary search over the checkpoint days.
+     *
+     * @param day Epoch day to look up
+     * @return Checkpoint slot, or -1 if every checkpoint is after the day
+     */
+    int floorCheckpoint(long day) {
+        int low = 0;
+        int high = size - 1;
+        int found = -1;
+        // LOOPS: binary search
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (days[mid] <= day) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    // Checkpoint accessors
+    int getCheckpointPosition(int slot) {
+        return positions[slot];
+    }
+
+    long getCheckpointDay(int slot) {
+        return days[slot];
+    }
+
+    double getCheckpointBalance(int slot) {
+        return balances[slot];
+    }
+
+    long getCheckpointOverdraftDays(int slot) {
+        return overdraftDays[slot];
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Position of the first transaction after a checkpoint's interval.
+     */
+    int getIntervalEnd(int slot) {
+        return slot + 1 < size ? positions[slot + 1] : appendedCount;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Days spent in overdraft between two points in time.
+     *
+     * @param balance Balance held during the period
+     * @param fromDay Start of the period (epoch day)
+     * @param toDay End of the period (epoch day)
+     */
+    static long overdraftDaysBetween(double balance, long fromDay, long toDay) {
+        return balance < 0 && toDay > fromDay ? toDay - fromDay : 0;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Converts a transaction date string to an epoch day.
+     *
+     * @param date Date in AppConstants.DATE_FORMAT
+     * @param fallback Value returned when the date cannot be parsed
+     */
+    static long toEpochDay(String date, long fallback) {
+        try {
+            return LocalDate.parse(date, DATE_FORMATTER).toEpochDay();
+        } catch (DateTimeParseException | NullPointerException e) {
+            return fallback;
+        }
+    }
+}
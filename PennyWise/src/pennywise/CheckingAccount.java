@@ -1,5 +1,7 @@
 package pennywise;
 
+import java.time.YearMonth;
+
 /**
  * CheckingAccount class extends Account.
  * Demonstrates INHERITANCE and POLYMORPHISM with specific checking account features.
@@ -48,13 +50,53 @@ public class CheckingAccount extends Account {
      */
     @Override
     public void applyAccountFeatures() {
-        // SELECTION: Check if account is in overdraft
-        if (getBalance() < 0) {
+        // Charge the overdraft fee (at most once per month)
+        double fee = chargeOverdraftFee(getCurrentDate(), YearMonth.now());
+        if (fee > 0) {
             System.out.println("Overdraft fee of $" + overdraftFee + " applied.");
-            super.withdraw(overdraftFee, "OVERDRAFT FEE of $" + overdraftFee);
         }
     }
 
+    /**
+     * VALUE RETURNING METHOD: Gets the transaction type prefix recording a month's overdraft fee.
+     * 
+     * @param period Month the fee is for
+     * @return Transaction type prefix, e.g. "WITHDRAWAL OVERDRAFT FEE 2026-10"
+     */
+    public static String overdraftFeeType(YearMonth period) {
+        return AppConstants.TRANSACTION_OVERDRAFT_FEE + " " + period;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Checks whether a month's overdraft fee has already been charged.
+     * 
+     * @param period Month to check
+     * @return true if the fee for that month is in the history
+     */
+    public boolean hasOverdraftFeeChargedFor(YearMonth period) {
+        return hasTransactionSince(period.atDay(1), overdraftFeeType(period));
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Charges the overdraft fee if the account is overdrawn, dated by the caller.
+     * The fee is posted as a debit even though the balance cannot cover it; going through
+     * withdraw would refuse it for exactly the accounts that owe it.
+     * Nothing is charged if the fee for the month is already in the history.
+     * 
+     * @param date Transaction date
+     * @param period Month the fee is for
+     * @return Fee charged, or 0 if the account is not in overdraft, has no fee or was already charged
+     * @throws IllegalStateException if the transaction history is full
+     */
+    public double chargeOverdraftFee(String date, YearMonth period) {
+        // SELECTION: Check if account is in overdraft
+        if (getBalance() < 0 && overdraftFee > 0 && !hasOverdraftFeeChargedFor(period)) {
+            postDebit(overdraftFee, overdraftFeeType(period) + " of $" + overdraftFee, date);
+            return overdraftFee;
+        }
+        return 0;
+    }
+
     /**
      * POLYMORPHISM: Override withdraw with overdraft protection.
      * Checking accounts allow withdrawals up to the overdraft limit.
@@ -65,6 +107,7 @@ public class CheckingAccount extends Account {
         double totalAvailable = getBalance() + overdraftLimit;
         System.out.println("Attempting withdrawal of $" + InputValidator.formatMoney(amount) + " - Available funds (including overdraft): $" + InputValidator.formatMoney(totalAvailable));
         if (amount > 0 && amount <= totalAvailable) {
+            requireTransactionCapacity();
             setBalance(getBalance() - amount);
             // Record transaction using parent method
             super.recordTransaction(amount, AppConstants.TRANSACTION_WITHDRAWAL, super.getCurrentDate());
@@ -110,21 +153,33 @@ public class CheckingAccount extends Account {
 
     /**
      * VOID METHOD: Displays overdraft summary using LOOPS.
+     * Uses the running balance stored on each transaction to see when the account went negative.
      */
     public void displayOverdraftHistory() {
         System.out.println("\n========== Overdraft Usage History ==========");
         
         int overdraftCount = 0;
-        // LOOPS: for loop to count overdraft occurrences
-        for (int i = 0; i < getTransactionCount(); i++) {
-            Transaction t = getTransaction(i);
-            // This is a simplified check - in a real system, we'd track balance after each transaction
-            if (t != null && t.getType().equals("WITHDRAWAL")) {
-                overdraftCount++;
+        double lowestBalance = 0;
+        double previousBalance = 0;
+        try {
+            // LOOPS: for loop to count the times the balance dropped below zero
+            for (int i = 0; i < getTransactionCount(); i++) {
+                Transaction t = getTransaction(i);
+                if (t != null && t.hasBalanceAfter()) {
+                    if (t.getBalanceAfter() < 0 && previousBalance >= 0) {
+                        overdraftCount++;
+                    }
+                    lowestBalance = Math.min(lowestBalance, t.getBalanceAfter());
+                    previousBalance = t.getBalanceAfter();
+                }
             }
+            
+            System.out.println("Times account went into overdraft: " + overdraftCount);
+            System.out.println("Lowest balance: $" + InputValidator.formatMoney(lowestBalance));
+            System.out.println("Days spent in overdraft: " + getDaysInOverdraft(java.time.LocalDate.now()));
+        } catch (java.io.UncheckedIOException e) {
+            System.out.println("Error: " + e.getMessage());
         }
-        
-        System.out.println("Total withdrawal transactions: " + overdraftCount);
         System.out.println("==========================================");
     }
 }
@@ -0,0 +1,174 @@
+package pennywise;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LoginRateLimiter class throttles login attempts before any password is hashed.
+ * Demonstrates ENCAPSULATION.
+ *
+ * Every attempt takes one token from the bucket of its source and one from the bucket
+ * of the username it targets. A bucket holds up to a burst of tokens and regains one
+ * token per refill period. Buckets are updated with compare-and-set on an immutable
+ * state, so concurrent logins never block each other.
+ *
+ * Memory is bounded: a bucket that has refilled completely is idle and equivalent to
+ * no bucket at all, so it is evicted when the table reaches LOGIN_LIMITER_MAX_BUCKETS.
+ * If the table is still full after that, attempts for new keys are throttled until space
+ * frees up, so filling the table with junk keys cannot switch throttling off.
+ */
+public class LoginRateLimiter {
+
+    // Source used for attempts made at the local console
+    public static final String CONSOLE_SOURCE = "console";
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long SWEEP_INTERVAL_NANOS = NANOS_PER_SECOND;
+
+    private static final BucketTable userBuckets =
+        new BucketTable(AppConstants.LOGIN_USER_BURST, AppConstants.LOGIN_USER_REFILL_SECONDS);
+    private static final BucketTable sourceBuckets =
+        new BucketTable(AppConstants.LOGIN_SOURCE_BURST, AppConstants.LOGIN_SOURCE_REFILL_SECONDS);
+
+    // Metrics
+    private static final LongAdder allowedAttempts = new LongAdder();
+    private static final LongAdder rejectedByUser = new LongAdder();
+    private static final LongAdder rejectedBySource = new LongAdder();
+
+    /**
+     * Helper class holding one bucket's state. Immutable, replaced by compare-and-set.
+     */
+    private static final class BucketState {
+        final double tokens;
+        final long updatedAt;
+
+        BucketState(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    /**
+     * Helper class holding the buckets of one key type (usernames or sources).
+     */
+    private static final class BucketTable {
+        private final double burst;
+        private final long refillNanos;             // time to regain one token
+        private final Map<String, AtomicReference<BucketState>> buckets = new ConcurrentHashMap<>();
+        private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+        private final LongAdder evicted = new LongAdder();
+        private final LongAdder untracked = new LongAdder();
+
+        BucketTable(int burst, int refillSeconds) {
+            this.burst = burst;
+            this.refillNanos = refillSeconds * NANOS_PER_SECOND;
+        }
+
+        /**
+         * VALUE RETURNING METHOD: Takes one token for a key.
+         *
+         * @return true if a token was available, false if not or if the table is full
+         */
+        boolean tryAcquire(String key, long now) {
+            AtomicReference<BucketState> bucket = buckets.get(key);
+            if (bucket == null) {
+                if (buckets.size() >= AppConstants.LOGIN_LIMITER_MAX_BUCKETS) {
+                    sweep(now);
+                    // SELECTION: fail closed, an untracked key gets no attempts
+                    if (buckets.size() >= AppConstants.LOGIN_LIMITER_MAX_BUCKETS) {
+                        untracked.increment();
+                        return false;
+                    }
+                }
+                bucket = buckets.computeIfAbsent(key, k -> new AtomicReference<>(new BucketState(burst, now)));
+            }
+
+            // LOOPS: compare-and-set retry until this thread's update wins
+            while (true) {
+                BucketState current = bucket.get();
+                double tokens = refilled(current, now);
+                if (tokens < 1) {
+                    return false;
+                }
+                if (bucket.compareAndSet(current, new BucketState(tokens - 1, Math.max(now, current.updatedAt)))) {
+                    return true;
+                }
+            }
+        }
+
+        private double refilled(BucketState state, long now) {
+            long elapsed = Math.max(0, now - state.updatedAt);
+            return Math.min(burst, state.tokens + (double) elapsed / refillNanos);
+        }
+
+        /**
+         * VOID METHOD: Evicts idle (fully refilled) buckets; at most one sweep per interval.
+         */
+        void sweep(long now) {
+            long previous = lastSweep.get();
+            if (now - previous < SWEEP_INTERVAL_NANOS || !lastSweep.compareAndSet(previous, now)) {
+                return;
+            }
+            // LOOPS: remove a bucket only if it is still the same full state we inspected
+            Iterator<Map.Entry<String, AtomicReference<BucketState>>> iterator = buckets.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, AtomicReference<BucketState>> entry = iterator.next();
+                BucketState state = entry.getValue().get();
+                if (refilled(state, now) >= burst && buckets.remove(entry.getKey(), entry.getValue())) {
+                    evicted.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Checks whether a login attempt may proceed.
+     * Cheap by design: no hashing happens here, only two map lookups and CAS updates.
+     *
+     * @param username Username the attempt targets
+     * @param source Where the attempt comes from (e.g. a client address)
+     * @return true if the attempt may be authenticated, false if it is throttled
+     */
+    public static boolean tryAcquire(String username, String source) {
+        long now = System.nanoTime();
+        // SELECTION: a throttled source does not use up the target user's attempts
+        if (!sourceBuckets.tryAcquire(source == null ? CONSOLE_SOURCE : source, now)) {
+            rejectedBySource.increment();
+            return false;
+        }
+        if (!userBuckets.tryAcquire(username, now)) {
+            rejectedByUser.increment();
+            return false;
+        }
+        allowedAttempts.increment();
+        return true;
+    }
+
+    /**
+     * VOID METHOD: Displays throttling metrics.
+     */
+    public static void displayMetrics() {
+        System.out.println("\n========== Login Throttling ==========");
+        System.out.println("Per username: " + AppConstants.LOGIN_USER_BURST + " attempts, then 1 per " +
+                           AppConstants.LOGIN_USER_REFILL_SECONDS + "s");
+        System.out.println("Per source: " + AppConstants.LOGIN_SOURCE_BURST + " attempts, then 1 per " +
+                           AppConstants.LOGIN_SOURCE_REFILL_SECONDS + "s");
+        System.out.println("Allowed attempts: " + allowedAttempts.sum());
+        System.out.println("Rejected (username limit): " + rejectedByUser.sum());
+        System.out.println("Rejected (source limit): " + rejectedBySource.sum());
+        System.out.println("Tracked buckets: " + userBuckets.buckets.size() + " usernames, " +
+                           sourceBuckets.buckets.size() + " sources");
+        System.out.println("Idle buckets evicted: " + (userBuckets.evicted.sum() + sourceBuckets.evicted.sum()));
+        System.out.println("Throttled untracked attempts (table full): " + (userBuckets.untracked.sum() + sourceBuckets.untracked.sum()));
+        System.out.println("======================================");
+    }
+
+    // Private constructor to prevent instantiation
+    private LoginRateLimiter() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+}
@@ -1,80 +1,136 @@
 package pennywise;
 
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.security.spec.InvalidKeySpecException;
 import java.util.Base64;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import pennywise.config.SystemConfiguration;
 
 /**
  * PasswordUtil class provides secure password hashing and verification for passwords.
- * Uses SHA-256 hashing with salt for secure password storage.
+ * New passwords are stretched with PBKDF2 (HMAC-SHA256); the iteration count is stored
+ * in the hash so it can be raised later without breaking existing passwords.
+ *
+ * Stored formats:
+ * - "pbkdf2:iterations:salt:hash" (current)
+ * - "salt:hash" (legacy single-round SHA-256, still verified)
  */
 public class PasswordUtil {
     
     private static final String HASH_ALGORITHM = "SHA-256";
+    private static final String PBKDF2_ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PBKDF2_PREFIX = "pbkdf2:";
     private static final int SALT_LENGTH = 16; // bytes
+    private static final int KEY_LENGTH = 256; // bits
+    
+    // Cost reported for legacy hashes (a single SHA-256 round)
+    public static final int LEGACY_HASH_COST = 1;
+    
+    // One SecureRandom for the whole application (it is thread-safe and costly to seed)
+    private static final SecureRandom RANDOM = new SecureRandom();
+    
+    // MessageDigest is not thread-safe, so every thread keeps its own instance
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to provide SHA-256
+            throw new IllegalStateException(HASH_ALGORITHM + " not available", e);
+        }
+    });
+    
+    // Same for the PBKDF2 factory, so a login does not repeat the provider lookup
+    private static final ThreadLocal<SecretKeyFactory> KEY_FACTORY = ThreadLocal.withInitial(() -> {
+        try {
+            return SecretKeyFactory.getInstance(PBKDF2_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java 8+ platform provides PBKDF2WithHmacSHA256
+            throw new IllegalStateException(PBKDF2_ALGORITHM + " not available", e);
+        }
+    });
     
     /**
-     * VALUE RETURNING METHOD: Generates a random salt for password hashing.
+     * VALUE RETURNING METHOD: Hashes a password with salt using the legacy scheme.
+     * The digest covers the password bytes followed by the salt's Base64 text,
+     * which is what the original "password + salt" string hashing produced.
+     * The password uses the platform charset, as before, so stored hashes keep verifying.
      * 
-     * @return Base64-encoded salt string
+     * @param password Plain text password
+     * @param saltText Base64 salt as stored
+     * @return Raw hash bytes
      */
-    private static String generateSalt() {
-        SecureRandom random = new SecureRandom();
-        byte[] salt = new byte[SALT_LENGTH];
-        random.nextBytes(salt);
-        return Base64.getEncoder().encodeToString(salt);
+    private static byte[] hashWithSalt(String password, String saltText) {
+        MessageDigest digest = DIGEST.get();
+        digest.reset();
+        digest.update(password.getBytes());
+        digest.update(saltText.getBytes(StandardCharsets.US_ASCII));
+        return digest.digest();
     }
     
     /**
-     * VALUE RETURNING METHOD: Hashes a password with salt.
+     * VALUE RETURNING METHOD: Stretches a password with PBKDF2.
      * 
      * @param password Plain text password
-     * @param salt Salt to use for hashing
-     * @return Base64-encoded hash
+     * @param salt Raw salt bytes
+     * @param iterations Number of PBKDF2 iterations (the cost)
+     * @return Raw derived key bytes
      */
-    private static String hashWithSalt(String password, String salt) {
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, KEY_LENGTH);
         try {
-            MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
-            
-            // Combine password and salt
-            String combined = password + salt;
-            byte[] hashBytes = digest.digest(combined.getBytes());
-            
-            // Return Base64-encoded hash
-            return Base64.getEncoder().encodeToString(hashBytes);
-        } catch (NoSuchAlgorithmException e) {
-            // Fallback to simple encoding if SHA-256 is not available
-            // This should never happen with modern Java
-            System.err.println("Warning: SHA-256 not available, using fallback encoding");
-            return Base64.getEncoder().encodeToString(password.getBytes());
+            return KEY_FACTORY.get().generateSecret(spec).getEncoded();
+        } catch (InvalidKeySpecException e) {
+            // Only reachable with a malformed spec, which is built right above
+            throw new IllegalStateException(PBKDF2_ALGORITHM + " rejected the key spec", e);
+        } finally {
+            spec.clearPassword();
         }
     }
     
     /**
-     * VALUE RETURNING METHOD: Hashes a password for storage.
-     * Returns format: "salt:hash"
+     * VALUE RETURNING METHOD: Hashes a password for storage with the configured cost.
+     * Returns format: "pbkdf2:iterations:salt:hash"
      * 
      * @param password Plain text password to hash
-     * @return Hashed password string in format "salt:hash"
+     * @return Hashed password string
      */
     public static String hashPassword(String password) {
+        return hashPassword(password, SystemConfiguration.getInstance().getPasswordHashIterations());
+    }
+    
+    /**
+     * VALUE RETURNING METHOD: Hashes a password for storage with a given cost.
+     * 
+     * @param password Plain text password to hash
+     * @param iterations Number of PBKDF2 iterations
+     * @return Hashed password string in format "pbkdf2:iterations:salt:hash"
+     */
+    public static String hashPassword(String password, int iterations) {
         if (password == null || password.isEmpty()) {
             throw new IllegalArgumentException("Password cannot be null or empty");
         }
         
-        String salt = generateSalt();
-        String hash = hashWithSalt(password, salt);
+        byte[] salt = new byte[SALT_LENGTH];
+        RANDOM.nextBytes(salt);
+        Base64.Encoder encoder = Base64.getEncoder();
         
-        // Store salt and hash together separated by :
-        return salt + ":" + hash;
+        // Store scheme, cost, salt and hash together separated by :
+        return PBKDF2_PREFIX + iterations + ":" + encoder.encodeToString(salt) + ":" +
+               encoder.encodeToString(pbkdf2(password, salt, iterations));
     }
     
     /**
      * VALUE RETURNING METHOD: Verifies a password against stored hash.
+     * Accepts both the PBKDF2 format and legacy "salt:hash" values. The hashes are
+     * compared in constant time so the comparison does not leak how many leading
+     * bytes matched.
      * 
      * @param password Plain text password to verify
-     * @param storedHash Stored hash in format "salt:hash"
+     * @param storedHash Stored hash string
      * @return true if password matches, false otherwise
      */
     public static boolean verifyPassword(String password, String storedHash) {
@@ -83,26 +139,71 @@ public class PasswordUtil {
         }
         
         try {
-            // Split stored hash into salt and hash components
-            String[] parts = storedHash.split(":", 2);
-            if (parts.length != 2) {
-                return false;
+            // SELECTION: choose the scheme from the stored format
+            if (storedHash.startsWith(PBKDF2_PREFIX)) {
+                int costEnd = storedHash.indexOf(':', PBKDF2_PREFIX.length());
+                int saltEnd = costEnd < 0 ? -1 : storedHash.indexOf(':', costEnd + 1);
+                if (saltEnd < 0) {
+                    return false;
+                }
+                int iterations = Integer.parseInt(storedHash.substring(PBKDF2_PREFIX.length(), costEnd));
+                // SELECTION: a damaged or hostile cost must not tie up a worker indefinitely
+                if (iterations < 1 || iterations > AppConstants.MAX_PASSWORD_HASH_ITERATIONS) {
+                    System.err.println("Error verifying password: hash cost " + iterations + " is out of range");
+                    return false;
+                }
+                byte[] salt = Base64.getDecoder().decode(storedHash.substring(costEnd + 1, saltEnd));
+                byte[] expected = Base64.getDecoder().decode(storedHash.substring(saltEnd + 1));
+                return MessageDigest.isEqual(expected, pbkdf2(password, salt, iterations));
             }
             
-            String salt = parts[0];
-            String hash = parts[1];
-            
-            // Hash the provided password with the stored salt
-            String providedHash = hashWithSalt(password, salt);
-            
-            // Compare hashes
-            return hash.equals(providedHash);
-        } catch (Exception e) {
+            // Legacy format: locate the salt/hash separator without splitting into an array
+            int separator = storedHash.indexOf(':');
+            if (separator < 0) {
+                return false;
+            }
+            byte[] expected = Base64.getDecoder().decode(storedHash.substring(separator + 1));
+            byte[] provided = hashWithSalt(password, storedHash.substring(0, separator));
+            return MessageDigest.isEqual(expected, provided);
+        } catch (IllegalArgumentException e) {
+            // Also covers NumberFormatException from a damaged cost field
             System.err.println("Error verifying password: " + e.getMessage());
             return false;
         }
     }
     
+    /**
+     * VALUE RETURNING METHOD: Returns the cost a stored hash was created with.
+     * 
+     * @param storedHash Stored hash string
+     * @return PBKDF2 iterations, LEGACY_HASH_COST for legacy hashes, or 0 if not hashed
+     */
+    public static int getHashCost(String storedHash) {
+        if (!isPasswordHashed(storedHash)) {
+            return 0;
+        }
+        if (!storedHash.startsWith(PBKDF2_PREFIX)) {
+            return LEGACY_HASH_COST;
+        }
+        int costEnd = storedHash.indexOf(':', PBKDF2_PREFIX.length());
+        try {
+            return costEnd < 0 ? 0 : Integer.parseInt(storedHash.substring(PBKDF2_PREFIX.length(), costEnd));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+    
+    /**
+     * VALUE RETURNING METHOD: Checks if a stored hash should be replaced on the next login.
+     * True for legacy hashes and for PBKDF2 hashes made with a different cost than configured.
+     * 
+     * @param storedHash Stored hash string
+     * @return true if the password should be rehashed
+     */
+    public static boolean needsRehash(String storedHash) {
+        return getHashCost(storedHash) != SystemConfiguration.getInstance().getPasswordHashIterations();
+    }
+    
     /**
      * VALUE RETURNING METHOD: Checks if a stored password is hashed.
      * 
@@ -0,0 +1,202 @@
+package pennywise;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PasswordVerifier class runs password verification and hashing on a bounded executor.
+ * Stretched hashes are deliberately slow, so hashing CPU is capped at one worker per
+ * core and waiting logins queue in a fixed-size queue. When the queue is full the
+ * login is refused straight away instead of piling up behind the others. New hashes
+ * (registration, password changes, rehash on login) share the same workers.
+ *
+ * Every verification is timed (queue wait included) and recorded in a latency
+ * histogram for the hash cost it was checked against.
+ */
+public class PasswordVerifier {
+
+    // Histogram buckets are powers of two in microseconds: bucket b holds [2^(b-1), 2^b) us
+    private static final int BUCKET_COUNT = 32;
+
+    private static final AtomicInteger threadNumber = new AtomicInteger();
+
+    // Bounded pool: one worker per core, fixed queue, refuse work when both are full
+    private static final ThreadPoolExecutor executor = createExecutor();
+
+    // Latency histogram per hash cost (PBKDF2 iterations, or 1 for legacy hashes)
+    private static final Map<Integer, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Helper class counting verification latencies in log2 microsecond buckets.
+     * LongAdder counters keep concurrent recording cheap.
+     */
+    private static final class LatencyHistogram {
+        private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalMicros = new LongAdder();
+
+        LatencyHistogram() {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long micros) {
+            int bucket = 64 - Long.numberOfLeadingZeros(micros);
+            buckets[Math.min(bucket, BUCKET_COUNT - 1)].increment();
+            count.increment();
+            totalMicros.add(micros);
+        }
+
+        /**
+         * VALUE RETURNING METHOD: Upper bound of the bucket holding the given quantile.
+         */
+        long quantileUpperBoundMicros(double quantile) {
+            long total = count.sum();
+            long target = (long) Math.ceil(total * quantile);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += buckets[i].sum();
+                if (seen >= target && seen > 0) {
+                    return 1L << i;
+                }
+            }
+            return 1L << (BUCKET_COUNT - 1);
+        }
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        int workers = Runtime.getRuntime().availableProcessors();
+        return new ThreadPoolExecutor(
+            workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(AppConstants.PASSWORD_VERIFIER_QUEUE_CAPACITY),
+            task -> {
+                Thread thread = new Thread(task, "pennywise-verifier-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Verifies a password on the verification executor.
+     * The calling thread waits for the result.
+     *
+     * @param password Plain text password to verify
+     * @param storedHash Stored hash string
+     * @return true if password matches, false if it does not or the verifier is busy
+     */
+    public static boolean verify(String password, String storedHash) {
+        long start = System.nanoTime();
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> PasswordUtil.verifyPassword(password, storedHash));
+        } catch (RejectedExecutionException e) {
+            System.out.println("Too many logins in progress. Please try again shortly.");
+            return false;
+        }
+
+        try {
+            boolean matches = result.get();
+            record(PasswordUtil.getHashCost(storedHash), (System.nanoTime() - start) / 1000);
+            return matches;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            System.err.println("Error verifying password: " + e.getCause());
+            return false;
+        }
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Hashes a password on the verification executor at the configured cost.
+     * The calling thread waits for the result.
+     *
+     * @param password Plain text password to hash
+     * @return Hashed password, or null if the executor is busy or hashing failed
+     */
+    public static String hash(String password) {
+        Future<String> result;
+        try {
+            result = executor.submit(() -> PasswordUtil.hashPassword(password));
+        } catch (RejectedExecutionException e) {
+            System.out.println("Too many password operations in progress. Please try again shortly.");
+            return null;
+        }
+
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            System.err.println("Error hashing password: " + e.getCause());
+            return null;
+        }
+    }
+
+    /**
+     * VOID METHOD: Records one verification latency for a hash cost.
+     */
+    private static void record(int cost, long micros) {
+        histograms.computeIfAbsent(cost, c -> new LatencyHistogram()).record(micros);
+    }
+
+    /**
+     * VOID METHOD: Displays the verification latency histogram of every hash cost seen.
+     */
+    public static void displayLatencyHistograms() {
+        System.out.println("\n========== Password Verification Latency ==========");
+        System.out.println("Workers: " + executor.getMaximumPoolSize() +
+                           ", Queue capacity: " + AppConstants.PASSWORD_VERIFIER_QUEUE_CAPACITY +
+                           ", Waiting now: " + executor.getQueue().size());
+        if (histograms.isEmpty()) {
+            System.out.println("No passwords verified yet.");
+            System.out.println("===================================================");
+            return;
+        }
+
+        // LOOPS: one section per cost, lowest cost first
+        for (Map.Entry<Integer, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            long count = histogram.count.sum();
+            String cost = entry.getKey() == PasswordUtil.LEGACY_HASH_COST
+                ? "legacy SHA-256"
+                : entry.getKey() + " iterations";
+            System.out.println("\nCost: " + cost + " (" + count + " verifications)");
+            System.out.println("  Mean: " + formatMicros(histogram.totalMicros.sum() / Math.max(1, count)) +
+                               ", p50 <= " + formatMicros(histogram.quantileUpperBoundMicros(0.50)) +
+                               ", p99 <= " + formatMicros(histogram.quantileUpperBoundMicros(0.99)));
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                long bucketCount = histogram.buckets[i].sum();
+                if (bucketCount > 0) {
+                    System.out.println("  < " + formatMicros(1L << i) + ": " + bucketCount);
+                }
+            }
+        }
+        System.out.println("===================================================");
+    }
+
+    private static String formatMicros(long micros) {
+        if (micros >= 1000) {
+            return String.format("%.1f ms", micros / 1000.0);
+        }
+        return micros + " us";
+    }
+
+    // Private constructor to prevent instantiation
+    private PasswordVerifier() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+}
@@ -9,6 +9,9 @@ package pennywise;
  */
 public class RegularUser extends User {
 
+    // Accounts of this user counted in SystemAggregates (changed only there)
+    int aggregatedAccountCount;
+
     /**
      * Constructor to initialize a RegularUser without initial accounts.
      * 
@@ -1,5 +1,6 @@
 package pennywise;
 
+import java.time.YearMonth;
 import pennywise.config.SystemConfiguration;
 
 /**
@@ -67,15 +68,58 @@ public class SavingsAccount extends Account {
      */
     @Override
     public void applyAccountFeatures() {
-        // Apply monthly interest
+        // Apply monthly interest (at most once per month)
+        double interest = postMonthlyInterest(getCurrentDate(), YearMonth.now());
+        
+        if (interest > 0) {
+            System.out.println("Interest applied: $" + InputValidator.formatMoney(interest));
+        }
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Gets the transaction type recording a month's interest.
+     * The month is part of the type, so the posting itself marks the month as done.
+     * 
+     * @param period Month the interest is for
+     * @return Transaction type, e.g. "DEPOSIT INTEREST 2026-10"
+     */
+    public static String interestType(YearMonth period) {
+        return AppConstants.TRANSACTION_INTEREST + " " + period;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Checks whether a month's interest has already been posted.
+     * 
+     * @param period Month to check
+     * @return true if the interest for that month is in the history
+     */
+    public boolean hasInterestPostedFor(YearMonth period) {
+        return hasTransactionSince(period.atDay(1), interestType(period));
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Posts one month of interest, dated by the caller.
+     * Used directly by the batch interest engine, which prints nothing per account.
+     * Nothing is posted if the interest for the month is already in the history.
+     * 
+     * @param date Transaction date
+     * @param period Month the interest is for
+     * @return Interest posted, or 0 if there was none to post
+     * @throws IllegalStateException if the transaction history is full
+     */
+    public double postMonthlyInterest(String date, YearMonth period) {
+        if (hasInterestPostedFor(period)) {
+            return 0;
+        }
         double monthlyRate = interestRate / 12;
         double interest = getBalance() * monthlyRate;
         
         // SELECTION: if-else to validate interest amount
         if (interest > 0) {
-            deposit(interest);
-            System.out.println("Interest applied: $" + InputValidator.formatMoney(interest));
+            postCredit(interest, interestType(period), date);
+            return interest;
         }
+        return 0;
     }
 
     /**
@@ -97,21 +141,17 @@ public class SavingsAccount extends Account {
 
     /**
      * VALUE RETURNING METHOD: Counts withdrawals in the current month.
-     * Demonstrates LOOPS and ARRAYS.
+     * Only the current month's slice of the history is visited.
      */
     private int countWithdrawalsThisMonth() {
+        java.time.LocalDate today = java.time.LocalDate.now();
         int count = 0;
-        java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat("MM/yyyy");
-        String currentMonth = sdf.format(new java.util.Date());
         
-        // LOOPS: for loop to iterate through transactions
-        for (int i = 0; i < getTransactionCount(); i++) {
-            Transaction t = getTransaction(i);
-            if (t != null && t.getType().equals(AppConstants.TRANSACTION_WITHDRAWAL)) {
-                String transMonth = t.getDate().substring(0, 2) + "/" + t.getDate().substring(6);
-                if (transMonth.equals(currentMonth)) {
-                    count++;
-                }
+        // LOOPS: for-each over this month's withdrawals
+        for (Transaction t : transactions().between(today.withDayOfMonth(1), today.withDayOfMonth(today.lengthOfMonth()))
+                                           .ofType(AppConstants.TRANSACTION_WITHDRAWAL)) {
+            if (t != null) {
+                count++;
             }
         }
         return count;
@@ -124,15 +164,70 @@ public class SavingsAccount extends Account {
      * @return Projected balance
      */
     public double projectFutureBalance(int months) {
-        double projectedBalance = getBalance();
-        double monthlyRate = interestRate / 12;
-        
-        // LOOPS: for loop to compound interest
-        for (int i = 0; i < months; i++) {
-            projectedBalance += projectedBalance * monthlyRate;
+        return projectBalance(getBalance(), interestRate, months);
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Projects a balance with monthly compounding.
+     * Uses the closed-form formula balance * (1 + rate/12)^months instead of
+     * compounding one month at a time.
+     * 
+     * @param balance Starting balance
+     * @param annualRate Annual interest rate (as decimal, e.g., 0.03 for 3%)
+     * @param months Number of months to project
+     * @return Projected balance
+     */
+    public static double projectBalance(double balance, double annualRate, int months) {
+        if (months <= 0) {
+            return balance;
+        }
+        return balance * Math.pow(1 + annualRate / 12, months);
+    }
+
+    /**
+     * VOID METHOD: Projects many balances at once.
+     * The loop is a plain counted loop over primitive arrays with no branches or
+     * object access, which keeps it friendly to the JIT's loop optimisations.
+     * 
+     * @param balances Starting balances
+     * @param annualRates Annual interest rates, one per balance
+     * @param months Number of months to project
+     * @param projected Output array (may be the same array as balances)
+     */
+    public static void projectBalances(double[] balances, double[] annualRates, int months, double[] projected) {
+        if (balances.length != annualRates.length || projected.length < balances.length) {
+            throw new IllegalArgumentException("Balance, rate and output arrays must have matching lengths");
+        }
+        int count = balances.length;
+        if (months <= 0) {
+            System.arraycopy(balances, 0, projected, 0, count);
+            return;
+        }
+        // LOOPS: one closed-form evaluation per account
+        for (int i = 0; i < count; i++) {
+            projected[i] = balances[i] * Math.pow(1 + annualRates[i] / 12, months);
+        }
+    }
+
+    /**
+     * VOID METHOD: Projects many balances at one shared (what-if) rate.
+     * The growth factor is computed once, leaving a multiply-only loop that the
+     * JIT can auto-vectorize.
+     * 
+     * @param balances Starting balances
+     * @param annualRate Annual interest rate applied to every balance
+     * @param months Number of months to project
+     * @param projected Output array (may be the same array as balances)
+     */
+    public static void projectBalances(double[] balances, double annualRate, int months, double[] projected) {
+        if (projected.length < balances.length) {
+            throw new IllegalArgumentException("Output array is shorter than the balance array");
+        }
+        double factor = projectBalance(1.0, annualRate, months);
+        // LOOPS: multiply-only loop
+        for (int i = 0; i < balances.length; i++) {
+            projected[i] = balances[i] * factor;
         }
-        
-        return projectedBalance;
     }
 
     /**
@@ -0,0 +1,168 @@
+package pennywise;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * SessionManager class keeps the in-memory store of authenticated sessions.
+ * Demonstrates ENCAPSULATION.
+ *
+ * A successful login is exchanged for a random token. Later operations validate the
+ * token with one hash lookup instead of checking the password again. Every successful
+ * validation slides the expiry forward by SESSION_TTL_MINUTES, so only idle sessions
+ * expire. The store is an access-ordered LinkedHashMap, so once MAX_ACTIVE_SESSIONS
+ * is reached the least recently used session is evicted to make room.
+ */
+public class SessionManager {
+
+    private static final long TTL_MILLIS = AppConstants.SESSION_TTL_MINUTES * 60_000L;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // ENCAPSULATION: token -> session, least recently used first (guarded by the map's lock)
+    private static final Map<String, Session> sessions =
+        new LinkedHashMap<String, Session>(64, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Session> eldest) {
+                return size() > AppConstants.MAX_ACTIVE_SESSIONS;
+            }
+        };
+
+    /**
+     * Helper class holding one authenticated session.
+     */
+    private static final class Session {
+        private final User user;
+        private long expiresAt;
+
+        Session(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Starts a session for an authenticated user.
+     *
+     * @param user User who has just logged in
+     * @return Session token to present on later operations
+     */
+    public static String createSession(User user) {
+        byte[] bytes = new byte[AppConstants.SESSION_TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        synchronized (sessions) {
+            sessions.put(token, new Session(user, System.currentTimeMillis() + TTL_MILLIS));
+        }
+        return token;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Validates a session token and renews its expiry.
+     * Constant time: one hash lookup, no password hashing.
+     *
+     * @param token Session token
+     * @return User the session belongs to, or null if the token is unknown or expired
+     */
+    public static User validateSession(String token) {
+        if (token == null) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        synchronized (sessions) {
+            Session session = sessions.get(token);
+            if (session == null) {
+                return null;
+            }
+            // SELECTION: expired sessions are dropped, live ones slide forward
+            if (session.expiresAt <= now) {
+                sessions.remove(token);
+                return null;
+            }
+            session.expiresAt = now + TTL_MILLIS;
+            return session.user;
+        }
+    }
+
+    /**
+     * VOID METHOD: Ends a session (logout).
+     *
+     * @param token Session token
+     */
+    public static void invalidateSession(String token) {
+        if (token == null) {
+            return;
+        }
+        synchronized (sessions) {
+            sessions.remove(token);
+        }
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Ends every session of a user, e.g. after a password change.
+     *
+     * @param user User whose sessions end
+     * @return Number of sessions ended
+     */
+    public static int invalidateUserSessions(User user) {
+        int removed = 0;
+        synchronized (sessions) {
+            // LOOPS: scan the store; password changes are rare compared to validations
+            Iterator<Session> iterator = sessions.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().user == user) {
+                    iterator.remove();
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Ends every session of a group of users in one scan, e.g. after a bulk delete.
+     *
+     * @param users Users whose sessions end
+     * @return Number of sessions ended
+     */
+    public static int invalidateUserSessions(Set<User> users) {
+        if (users.isEmpty()) {
+            return 0;
+        }
+        int removed = 0;
+        synchronized (sessions) {
+            // LOOPS: one pass over the store for the whole group
+            Iterator<Session> iterator = sessions.values().iterator();
+            while (iterator.hasNext()) {
+                if (users.contains(iterator.next().user)) {
+                    iterator.remove();
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Number of sessions currently stored (expired ones included
+     * until they are next looked up or evicted).
+     */
+    public static int getActiveSessionCount() {
+        synchronized (sessions) {
+            return sessions.size();
+        }
+    }
+
+    // Private constructor to prevent instantiation
+    private SessionManager() {
+        throw new AssertionError("Manager class should not be instantiated");
+    }
+}
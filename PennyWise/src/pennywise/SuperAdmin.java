@@ -1,8 +1,21 @@
 package pennywise;
 
+import java.io.IOException;
+import java.time.YearMonth;
 import java.util.Scanner;
+import pennywise.batch.BatchScheduler;
+import pennywise.batch.BatchTransferProcessor;
+import pennywise.batch.BulkAccountUpdater;
+import pennywise.batch.InterestPostingEngine;
+import pennywise.batch.OverdraftFeeEngine;
+import pennywise.batch.PasswordMigrationJob;
+import pennywise.batch.PortfolioSimulator;
 import pennywise.config.SystemConfiguration;
 import pennywise.data.DataStorage;
+import pennywise.report.BalanceDistribution;
+import pennywise.report.QuantileSketch;
+import pennywise.report.ReportFormat;
+import pennywise.report.ReportWriter;
 
 /**
  * SuperAdmin extends Admin with elevated permissions.
@@ -48,6 +61,11 @@ public class SuperAdmin extends Admin {
         System.out.println("8. Manage other administrators");
         System.out.println("9. Manage system configuration");
         System.out.println("10. Delete all stored data");
+        System.out.println("11. Simulate portfolio interest and fees (what-if)");
+        System.out.println("12. Bulk delete user accounts");
+        System.out.println("13. Search users by username, email or ID");
+        System.out.println("14. Migrate plain-text passwords to hashes");
+        System.out.println("15. Process batch transfer files (e.g. payroll)");
         System.out.println("-------------------------------");
     }
 
@@ -69,13 +87,21 @@ public class SuperAdmin extends Admin {
             System.out.println("8. Manage Administrators (Simulated)");
             System.out.println("9. Manage System Configuration");
             System.out.println("10. [DANGER] Delete All Stored Data");
-            System.out.println("11. Logout");
+            System.out.println("11. Simulate Portfolio Interest and Fees (What-If)");
+            System.out.println("12. Bulk Delete User Accounts");
+            System.out.println("13. Search Users");
+            System.out.println("14. Migrate Plain-Text Passwords");
+            System.out.println("15. Process Batch Transfer File");
+            System.out.println("16. Logout");
             System.out.print("Select option: ");
 
             String choice = scanner.nextLine();
+            if (sessionExpired()) {
+                return;
+            }
             switch (choice) {
                 case "1":
-                    displayAllUsers();
+                    displayAllUsers(scanner);
                     break;
                 case "2":
                     modifyUserInformation(scanner);
@@ -87,7 +113,7 @@ public class SuperAdmin extends Admin {
                     deleteUserAccount(scanner);
                     break;
                 case "5":
-                    generateSystemReport();
+                    generateSystemReport(scanner);
                     break;
                 case "6":
                     applyAccountFeaturesToAllSavings();
@@ -105,7 +131,23 @@ public class SuperAdmin extends Admin {
                     deleteAllStoredData(scanner);
                     break;
                 case "11":
+                    simulatePortfolio(scanner);
+                    break;
+                case "12":
+                    bulkDeleteUsers(scanner);
+                    break;
+                case "13":
+                    searchUsers(scanner);
+                    break;
+                case "14":
+                    migratePlainTextPasswords(scanner);
+                    break;
+                case "15":
+                    processBatchTransferFile(scanner);
+                    break;
+                case "16":
                     inAdmin = false;
+                    endSession();
                     System.out.println("Admin logged out.");
                     break;
                 default:
@@ -115,51 +157,113 @@ public class SuperAdmin extends Admin {
         }
     }
 
-    private void generateSystemReport() {
+    /**
+     * VOID METHOD: Prints the system-wide report.
+     * The financial summary is read from the running totals in SystemAggregates, so it
+     * costs the same however many accounts exist. On request the per-account details are
+     * exported to a report file and the running totals are cross-checked against a full scan.
+     */
+    private void generateSystemReport(Scanner scanner) {
         System.out.println("\n========== SYSTEM-WIDE FINANCIAL REPORT ==========");
         System.out.println("Generated at: " + new java.text.SimpleDateFormat("MM/dd/yyyy HH:mm:ss").format(new java.util.Date()));
-        double totalBalance = 0;
-        int totalTransactions = 0;
-        int savingsAccountCount = 0;
-        int checkingAccountCount = 0;
-
-        System.out.println("\n--- User Account Summary ---");
-        if (UserManager.getUserCount() == 0) {
-            System.out.println("No users in system.");
+        SystemAggregates.Snapshot totals = SystemAggregates.snapshot();
+        int userCount = UserManager.getRegisteredUserCount();
+
+        System.out.println("\n--- Financial Summary ---");
+        System.out.println("Total Users: " + userCount);
+        System.out.println("Savings Accounts: " + totals.getSavingsAccountCount());
+        System.out.println("Checking Accounts: " + totals.getCheckingAccountCount());
+        System.out.println("Total System Balance: $" + InputValidator.formatMoney(totals.getTotalBalance()));
+        System.out.println("Total Transactions: " + totals.getTotalTransactions());
+        System.out.println("Default savings percentage: " + String.format("%.2f", SystemConfiguration.getInstance().getDefaultSavingsInterestRate() * 100) + "%");
+        System.out.println("Users with Accounts: " + totals.getUsersWithAccounts());
+        System.out.println("Average Balance per User (with accounts): $" + InputValidator.formatMoney(totals.getAverageBalancePerUser()));
+        System.out.println("==================================================");
+
+        System.out.print("\nShow the balance distribution (one parallel pass over all accounts)? (yes/no): ");
+        if (scanner.nextLine().trim().equalsIgnoreCase("yes")) {
+            displayBalanceDistribution(BalanceDistribution.compute());
+        }
+
+        System.out.print("\nExport every account to a report file and verify the totals with a full scan? (yes/no): ");
+        if (!scanner.nextLine().trim().equalsIgnoreCase("yes")) {
+            return;
+        }
+        System.out.print("Format (1. CSV, 2. JSON Lines): ");
+        ReportFormat format = scanner.nextLine().trim().equals("2") ? ReportFormat.JSONL : ReportFormat.CSV;
+        System.out.print("Compress with gzip? (yes/no): ");
+        boolean gzip = scanner.nextLine().trim().equalsIgnoreCase("yes");
+        exportAccountReport(format, gzip);
+
+        System.out.println("\n--- Verification ---");
+        java.util.List<String> differences = SystemAggregates.verify();
+        if (differences.isEmpty()) {
+            System.out.println("Running totals match the full scan.");
         } else {
-            for (int i = 0; i < UserManager.getUserCount(); i++) {
-                User u = UserManager.getUser(i);
-                if (u instanceof RegularUser) {
-                    RegularUser user = (RegularUser) u;
-                    Account[] accounts = user.getAccounts();
-                    if (!AccountManager.hasNoAccounts(accounts)) {
-                        int accountIndex = 1;
-                        for (Account account : accounts) {
-                            if (account != null) {
-                                System.out.println((i + 1) + "." + accountIndex + " " + user.getUsername() + " - Account: " + account.getAccountType());
-                                System.out.println("   Balance: $" + InputValidator.formatMoney(account.getBalance()));
-                                System.out.println("   Transactions: " + account.getTransactionCount());
-                                totalBalance += account.getBalance();
-                                totalTransactions += account.getTransactionCount();
-                                if (account instanceof SavingsAccount) savingsAccountCount++;
-                                else if (account instanceof CheckingAccount) checkingAccountCount++;
-                                accountIndex++;
-                            }
-                        }
+            System.out.println("WARNING: Running totals differ from the full scan:");
+            // LOOPS: one line per mismatching total
+            for (String difference : differences) {
+                System.out.println("  " + difference);
+            }
+        }
+        System.out.println("==================================================");
+    }
+
+    /**
+     * VOID METHOD: Prints balance quantiles per account type and the overdraft depth buckets.
+     */
+    private void displayBalanceDistribution(BalanceDistribution distribution) {
+        System.out.println("\n--- Balance Distribution (estimates within " +
+                           InputValidator.formatPercentage(QuantileSketch.ERROR) + ") ---");
+        if (distribution.getSketches().isEmpty()) {
+            System.out.println("No accounts in system.");
+        }
+        // LOOPS: one line per account type
+        for (java.util.Map.Entry<String, QuantileSketch> entry : distribution.getSketches().entrySet()) {
+            QuantileSketch sketch = entry.getValue();
+            System.out.println(entry.getKey() + " (" + sketch.getCount() + " accounts): median $" +
+                               InputValidator.formatMoney(sketch.quantile(0.50)) + ", p90 $" +
+                               InputValidator.formatMoney(sketch.quantile(0.90)) + ", p99 $" +
+                               InputValidator.formatMoney(sketch.quantile(0.99)));
+        }
+        System.out.println("Accounts in overdraft by depth:");
+        for (int i = 0; i < distribution.getOverdraftBucketCount(); i++) {
+            System.out.println("  " + distribution.getOverdraftBucketLabel(i) + ": " + distribution.getOverdraftCount(i));
+        }
+        System.out.println("Computed in " + String.format("%.3f", distribution.getElapsedNanos() / 1_000_000_000.0) + "s");
+    }
+
+    /**
+     * VOID METHOD: Streams one row per account to a report file in data/reports.
+     * Only a one-line result is printed, however many accounts there are.
+     */
+    private void exportAccountReport(ReportFormat format, boolean gzip) {
+        long rows;
+        String path;
+        try (ReportWriter report = ReportWriter.open("system-report", format, gzip,
+                "user_id", "username", "account_number", "account_type", "balance", "transactions")) {
+            // LOOPS: every account of every registered user
+            for (RegularUser user : UserManager.getAllRegularUsers()) {
+                if (user == null) {
+                    continue;
+                }
+                for (Account account : user.getAccounts()) {
+                    if (account != null) {
+                        report.text(user.getUserId()).text(user.getUsername())
+                              .text(account.getAccountNumber()).text(account.getAccountType())
+                              .money(account.getBalance()).number(account.getTransactionCount())
+                              .endRow();
                     }
                 }
             }
+            rows = report.getRowCount();
+            path = report.getPath();
+        } catch (IOException e) {
+            System.out.println("Error writing system report: " + e.getMessage());
+            return;
         }
-
-        System.out.println("\n--- Financial Summary ---");
-        System.out.println("Total Users: " + UserManager.getUserCount());
-        System.out.println("Savings Accounts: " + savingsAccountCount);
-        System.out.println("Checking Accounts: " + checkingAccountCount);
-        System.out.println("Total System Balance: $" + InputValidator.formatMoney(totalBalance));
-        System.out.println("Total Transactions: " + totalTransactions);
-        System.out.println("Default savings percentage: " + String.format("%.2f", SystemConfiguration.getInstance().getDefaultSavingsInterestRate() * 100) + "%");
-        System.out.println("Average Balance per User: $" + InputValidator.formatMoney(UserManager.getUserCount() > 0 ? totalBalance / UserManager.getUserCount() : 0));
-        System.out.println("==================================================");
+        // Printed once the file is closed and complete
+        System.out.println("\nExported " + rows + " accounts to " + path);
     }
 
     private void manageAdmins(Scanner scanner) {
@@ -233,103 +337,246 @@ public class SuperAdmin extends Admin {
 
     /**
      * VOID METHOD: Applies account features (like interest) to all savings accounts.
-     * Super admin only - processes interest calculations for all savings accounts.
+     * Super admin only - posts interest in parallel through the batch interest engine
+     * and shows one summary instead of a listing per account.
      */
     private void applyAccountFeaturesToAllSavings() {
         System.out.println("\n========== Applying Account Features to All Savings Accounts ==========");
-        int savingsAccountCount = 0;
-        double totalInterestApplied = 0;
-
-        // LOOPS: for loop to iterate through all users
-        for (int i = 0; i < UserManager.getUserCount(); i++) {
-            User u = UserManager.getUser(i);
-            if (u instanceof RegularUser) {
-                RegularUser user = (RegularUser) u;
-                Account[] accounts = user.getAccounts();
-                if (!AccountManager.hasNoAccounts(accounts)) {
-                    for (Account account : accounts) {
-                        // SELECTION: Check if account is a SavingsAccount
-                        if (account instanceof SavingsAccount) {
-                            SavingsAccount savingsAccount = (SavingsAccount) account;
-                            double balanceBefore = account.getBalance();
-                            // Apply account-specific features (interest in this case)
-                            savingsAccount.applyAccountFeatures();
-                            double balanceAfter = account.getBalance();
-                            double interestEarned = balanceAfter - balanceBefore;
-
-                            System.out.println("User: " + user.getUsername());
-                            System.out.println("  Account: " + account.getAccountNumber());
-                            System.out.println("  Balance Before: $" + InputValidator.formatMoney(balanceBefore));
-                            System.out.println("  Interest Applied: $" + InputValidator.formatMoney(interestEarned));
-                            System.out.println("  Balance After: $" + InputValidator.formatMoney(balanceAfter));
-
-                            savingsAccountCount++;
-                            totalInterestApplied += interestEarned;
-                        }
-                    }
-                }
-            }
+        YearMonth period = YearMonth.now();
+        if (BatchScheduler.isCompleted(BatchScheduler.Job.INTEREST, period)) {
+            System.out.println("Interest for " + period + " has already been posted; only accounts not yet posted will be processed.");
         }
+        InterestPostingEngine.PostingResult result = BatchScheduler.runInterest(period);
 
         // Display summary
         System.out.println("\n--- Summary ---");
-        System.out.println("Total Savings Accounts Processed: " + savingsAccountCount);
-        System.out.println("Total Interest Applied System-wide: $" + InputValidator.formatMoney(totalInterestApplied));
+        System.out.println("Total Savings Accounts Processed: " + result.getAccounts());
+        System.out.println("Interest Posted: " + result.getPosted() + ", Already Posted: " + result.getAlreadyPosted() +
+                           ", Skipped: " + result.getSkipped() + ", Failed: " + result.getFailed());
+        System.out.println("Total Interest Applied System-wide: $" + InputValidator.formatMoney(result.getTotalInterest()));
+        System.out.println("Elapsed: " + String.format("%.3f", result.getElapsedNanos() / 1_000_000_000.0) + "s");
+        if (result.getSummaryFile() != null) {
+            System.out.println("Summary written to " + result.getSummaryFile());
+        }
+        System.out.println(result.isSaved() ? "Data saved." : "Warning: Failed to save data.");
         System.out.println("====================================================================");
-
-        // Save data after applying interest
-        DataStorage.saveAllData();
     }
 
     /**
      * VOID METHOD: Applies account features (overdraft fees) to all checking accounts.
-     * Super admin only - processes overdraft fee calculations for all checking accounts.
+     * Super admin only - charges fees in parallel through the batch fee engine; an account
+     * that fails is reported and the rest of the batch still runs.
      */
     private void applyAccountFeaturesToAllChecking() {
         System.out.println("\n========== Applying Account Features to All Checking Accounts ==========");
-        int checkingAccountCount = 0;
-        double totalOverdraftFeesApplied = 0;
-
-        // LOOPS: for loop to iterate through all users
-        for (int i = 0; i < UserManager.getUserCount(); i++) {
-            User u = UserManager.getUser(i);
-            if (u instanceof RegularUser) {
-                RegularUser user = (RegularUser) u;
-                Account[] accounts = user.getAccounts();
-                if (!AccountManager.hasNoAccounts(accounts)) {
-                    for (Account account : accounts) {
-                        // SELECTION: Check if account is a CheckingAccount
-                        if (account instanceof CheckingAccount) {
-                            CheckingAccount checkingAccount = (CheckingAccount) account;
-                            double balanceBefore = account.getBalance();
-                            // Apply account-specific features (overdraft fees in this case)
-                            checkingAccount.applyAccountFeatures();
-                            double balanceAfter = account.getBalance();
-                            double feesApplied = balanceBefore - balanceAfter;
-
-                            System.out.println("User: " + user.getUsername());
-                            System.out.println("  Account: " + account.getAccountNumber());
-                            System.out.println("  Balance Before: $" + InputValidator.formatMoney(balanceBefore));
-                            System.out.println("  Overdraft Status: " + (checkingAccount.isInOverdraft() ? "IN OVERDRAFT" : "NORMAL"));
-                            System.out.println("  Fees Applied: $" + InputValidator.formatMoney(feesApplied));
-                            System.out.println("  Balance After: $" + InputValidator.formatMoney(balanceAfter));
-
-                            checkingAccountCount++;
-                            totalOverdraftFeesApplied += feesApplied;
-                        }
-                    }
-                }
-            }
+        YearMonth period = YearMonth.now();
+        if (BatchScheduler.isCompleted(BatchScheduler.Job.OVERDRAFT_FEES, period)) {
+            System.out.println("Overdraft fees for " + period + " have already been charged; only accounts not yet charged will be processed.");
         }
+        OverdraftFeeEngine.FeeResultTable result = BatchScheduler.runOverdraftFees(period);
 
         // Display summary
         System.out.println("\n--- Summary ---");
-        System.out.println("Total Checking Accounts Processed: " + checkingAccountCount);
-        System.out.println("Total Overdraft Fees Applied System-wide: $" + InputValidator.formatMoney(totalOverdraftFeesApplied));
+        System.out.println("Total Checking Accounts Processed: " + result.size());
+        System.out.println("Fees Applied: " + result.getApplied() + ", Already Charged: " + result.getAlreadyCharged() +
+                           ", Skipped: " + result.getSkipped() + ", Failed: " + result.getFailed());
+        System.out.println("Total Overdraft Fees Applied System-wide: $" + InputValidator.formatMoney(result.getTotalFees()));
+        System.out.println("Elapsed: " + String.format("%.3f", result.getElapsedNanos() / 1_000_000_000.0) + "s");
+        if (result.getSummaryFile() != null) {
+            System.out.println("Summary written to " + result.getSummaryFile());
+        }
+        if (result.getDetailsFile() != null) {
+            System.out.println("Charged and failed accounts listed in " + result.getDetailsFile());
+        }
+        System.out.println(result.isSaved() ? "Data saved." : "Warning: Failed to save data.");
         System.out.println("====================================================================");
+    }
+
+    /**
+     * VOID METHOD: Simulates months of interest and overdraft fees without touching live data.
+     * The accounts are copied into primitive arrays and simulated in parallel; a what-if
+     * savings rate and/or overdraft fee is compared month by month with the current values.
+     */
+    private void simulatePortfolio(Scanner scanner) {
+        System.out.print("Enter number of months to simulate (1-" + AppConstants.MAX_SIMULATION_MONTHS + "): ");
+        int months = InputValidator.getIntInput(scanner);
+        if (months <= 0 || months > AppConstants.MAX_SIMULATION_MONTHS) {
+            System.out.println("Number of months must be between 1 and " + AppConstants.MAX_SIMULATION_MONTHS + ".");
+            return;
+        }
+
+        System.out.print("Enter what-if savings interest rate (as percentage, leave blank to keep each account's rate): ");
+        double whatIfRate = readWhatIf(scanner, 100.0);
+        if (whatIfRate < 0) {
+            System.out.println("Interest rate must be a non-negative number.");
+            return;
+        }
+        System.out.print("Enter what-if overdraft fee (leave blank to keep each account's fee): ");
+        double whatIfFee = readWhatIf(scanner, 1.0);
+        if (whatIfFee < 0) {
+            System.out.println("Overdraft fee must be a non-negative number.");
+            return;
+        }
+
+        PortfolioSimulator.Portfolio portfolio = PortfolioSimulator.Portfolio.capture();
+        if (portfolio.getSavingsCount() + portfolio.getCheckingCount() == 0) {
+            System.out.println("No accounts in system.");
+            return;
+        }
+        PortfolioSimulator.SimulationResult result = PortfolioSimulator.simulate(portfolio, months, whatIfRate, whatIfFee);
+
+        System.out.println("\n========== Portfolio Simulation (dry run) ==========");
+        System.out.println("Savings Accounts: " + portfolio.getSavingsCount() + ", Checking Accounts: " + portfolio.getCheckingCount());
+        System.out.println("Months Simulated: " + months);
+        System.out.println("Savings Rate: " + (Double.isNaN(whatIfRate) ? "per-account rates" : InputValidator.formatPercentage(whatIfRate) + " (what-if)"));
+        System.out.println("Overdraft Fee: " + (Double.isNaN(whatIfFee) ? "per-account fees" : "$" + InputValidator.formatMoney(whatIfFee) + " (what-if)"));
+        System.out.println("Current Total Balance: $" + InputValidator.formatMoney(result.getStartingBalance()));
+        System.out.println("Projected Total Balance: $" + InputValidator.formatMoney(result.getEndingBalance()) +
+                           " (current settings: $" + InputValidator.formatMoney(result.getBaselineEndingBalance()) + ")");
+        System.out.println("Total Interest: $" + InputValidator.formatMoney(result.getTotalInterest()) +
+                           " (current settings: $" + InputValidator.formatMoney(result.getBaselineTotalInterest()) + ")");
+        System.out.println("Total Overdraft Fees: $" + InputValidator.formatMoney(result.getTotalFees()) +
+                           " (current settings: $" + InputValidator.formatMoney(result.getBaselineTotalFees()) + ")");
+
+        System.out.println("\nMonth | Interest | Fees | Net change | vs current settings");
+        // LOOPS: every month for short runs, otherwise every twelfth month and the last one
+        for (int m = 1; m <= months; m++) {
+            if (months <= 12 || m % 12 == 0 || m == months) {
+                System.out.println(m + " | $" + InputValidator.formatMoney(result.getInterest(m)) +
+                                   " | $" + InputValidator.formatMoney(result.getFees(m)) +
+                                   " | $" + InputValidator.formatMoney(result.getNetChange(m)) +
+                                   " | $" + InputValidator.formatMoney(result.getDeltaVersusBaseline(m)));
+            }
+        }
+        String file = writeSimulationReport(result);
+        if (file != null) {
+            System.out.println("Every month written to " + file);
+        }
+        System.out.println("Simulated in " + String.format("%.3f", result.getElapsedNanos() / 1_000_000.0) + " ms");
+        System.out.println("No accounts were changed.");
+        System.out.println("====================================================");
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Reads an optional what-if value.
+     *
+     * @param scale Divisor applied to the input (100 for percentages)
+     * @return The value, NaN if the input was blank, or -1 if it was invalid or negative
+     */
+    private double readWhatIf(Scanner scanner, double scale) {
+        String input = scanner.nextLine().trim();
+        if (input.isEmpty()) {
+            return Double.NaN;
+        }
+        try {
+            double value = Double.parseDouble(input) / scale;
+            return value >= 0 && !Double.isInfinite(value) ? value : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Writes one CSV row per simulated month to data/reports.
+     *
+     * @return Path of the report, or null if it could not be written
+     */
+    private String writeSimulationReport(PortfolioSimulator.SimulationResult result) {
+        try (ReportWriter report = ReportWriter.open("portfolio-simulation", ReportFormat.CSV, false,
+                "month", "interest", "fees", "fees_charged", "total_balance", "baseline_total_balance", "delta_vs_baseline")) {
+            double balance = result.getStartingBalance();
+            double baseline = balance;
+            // LOOPS: running balances are carried forward instead of recomputed per month
+            for (int m = 1; m <= result.getMonths(); m++) {
+                balance += result.getNetChange(m);
+                baseline += result.getBaselineInterest(m) - result.getBaselineFees(m);
+                report.number(m).money(result.getInterest(m)).money(result.getFees(m)).number(result.getFeesCharged(m))
+                      .money(balance).money(baseline).money(result.getDeltaVersusBaseline(m)).endRow();
+            }
+            return report.getPath();
+        } catch (IOException e) {
+            System.out.println("Warning: Could not write simulation report: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * VOID METHOD: Hash every stored plain-text password in one parallel batch job.
+     * Used after importing legacy users; data is saved once when the job finishes.
+     */
+    private void migratePlainTextPasswords(Scanner scanner) {
+        System.out.println("\n========== Password Migration ==========");
+        System.out.print("Hash all plain-text passwords now? (yes/no): ");
+        String confirmation = scanner.nextLine();
+        if (!confirmation.equalsIgnoreCase("yes")) {
+            System.out.println("Password migration cancelled.");
+            return;
+        }
+
+        PasswordMigrationJob.MigrationResult result = PasswordMigrationJob.migrateAll();
+        if (result.getMigrated() > 0) {
+            System.out.println("Migrated " + result.getMigrated() + " of " + result.getScanned() + " users in " +
+                               String.format("%.1f", result.getElapsedNanos() / 1_000_000_000.0) + "s (" +
+                               String.format("%,.0f", result.getPasswordsPerSecond()) + " passwords/s).");
+            System.out.println(result.isSaved() ? "Migrated passwords saved." : "Warning: Failed to save migrated passwords.");
+        }
+        System.out.println("========================================");
+    }
 
-        // Save data after applying fees
-        DataStorage.saveAllData();
+    /**
+     * VOID METHOD: Validates a transfer file, shows what it will do and executes it after confirmation.
+     * File format: from,to,amount,reference (one transfer per line).
+     */
+    private void processBatchTransferFile(Scanner scanner) {
+        System.out.println("\n========== Batch Transfers ==========");
+        System.out.print("Path of the transfer file (from,to,amount,reference): ");
+        String path = scanner.nextLine().trim();
+        if (path.isEmpty()) {
+            System.out.println("Batch transfers cancelled.");
+            return;
+        }
+
+        BatchTransferProcessor.TransferBatch batch;
+        try {
+            batch = BatchTransferProcessor.load(path);
+        } catch (IOException e) {
+            System.out.println("Error: Could not read " + path + ": " + e.getMessage());
+            return;
+        }
+        System.out.println("Rows: " + batch.size() + " (" + batch.getValidRows() + " valid, " +
+                           batch.getInvalidRows() + " invalid)");
+        System.out.println("Total of valid rows: $" + InputValidator.formatMoney(batch.getValidAmount()));
+        // LOOPS: show the first few invalid rows; all of them go to the result file
+        int shown = 0;
+        for (int row = 0; row < batch.size() && shown < 5; row++) {
+            if (batch.getOutcome(row) == BatchTransferProcessor.Outcome.INVALID) {
+                System.out.println("  Line " + batch.getLineNumber(row) + ": " + batch.getMessage(row));
+                shown++;
+            }
+        }
+        if (batch.getValidRows() == 0) {
+            System.out.println("No valid transfers to execute.");
+            return;
+        }
+
+        System.out.print("Execute the " + batch.getValidRows() + " valid transfers? (yes/no): ");
+        if (!scanner.nextLine().equalsIgnoreCase("yes")) {
+            System.out.println("Batch transfers cancelled.");
+            return;
+        }
+
+        BatchTransferProcessor.execute(batch);
+        System.out.println("Done: " + batch.getDone() + ", insufficient funds: " + batch.getInsufficientFunds() +
+                           ", failed: " + batch.getFailed() + " (" + batch.getWaves() + " waves, " +
+                           String.format("%.1f", batch.getElapsedNanos() / 1_000_000_000.0) + "s)");
+        System.out.println("Total transferred: $" + InputValidator.formatMoney(batch.getTransferred()));
+        if (batch.getResultFile() != null) {
+            System.out.println("Per-row results: " + batch.getResultFile());
+        }
+        if (batch.getDone() > 0) {
+            System.out.println(batch.isSaved() ? "Transfers saved." : "Warning: Failed to save transfers.");
+        }
+        System.out.println("=====================================");
     }
 
     /**
@@ -394,8 +641,14 @@ public class SuperAdmin extends Admin {
             System.out.println("5. Set Default Checking Overdraft Fee");
             System.out.println("6. Set Default Max Withdrawals per Month (Savings)");
             System.out.println("7. Set Specific Savings Account Max Withdrawals");
-            System.out.println("8. View Configuration");
-            System.out.println("9. Save and Exit Configuration Menu");
+            System.out.println("8. Set Transaction Archive Horizon (days)");
+            System.out.println("9. Set Password Hash Cost (PBKDF2 iterations)");
+            System.out.println("10. View Password Verification Latency");
+            System.out.println("11. View Login Throttling Metrics");
+            System.out.println("12. Set Monthly Interest/Fee Run Day (0 = manual only)");
+            System.out.println("13. Bulk Apply a Setting to Existing Accounts");
+            System.out.println("14. View Configuration");
+            System.out.println("15. Save and Exit Configuration Menu");
             System.out.print("Select option: ");
 
             String choice = scanner.nextLine();
@@ -422,9 +675,27 @@ public class SuperAdmin extends Admin {
                     setSavingsAccountMaxWithdrawals(scanner);
                     break;
                 case "8":
-                    config.displaySettings();
+                    setArchiveHorizon(scanner);
                     break;
                 case "9":
+                    setPasswordHashCost(scanner);
+                    break;
+                case "10":
+                    PasswordVerifier.displayLatencyHistograms();
+                    break;
+                case "11":
+                    LoginRateLimiter.displayMetrics();
+                    break;
+                case "12":
+                    setBatchRunDay(scanner);
+                    break;
+                case "13":
+                    bulkApplySetting(scanner);
+                    break;
+                case "14":
+                    config.displaySettings();
+                    break;
+                case "15":
                     inConfigMenu = false;
                     DataStorage.saveAllData();
                     System.out.println("Configuration saved successfully!");
@@ -436,6 +707,109 @@ public class SuperAdmin extends Admin {
         }
     }
 
+    /**
+     * VOID METHOD: Applies one setting to every existing account that matches a filter.
+     * Typically used after changing a default, to reprice the accounts opened under the old one.
+     * Shows how many accounts match and asks for confirmation before changing anything.
+     */
+    private void bulkApplySetting(Scanner scanner) {
+        System.out.println("\n--- Bulk Apply Setting ---");
+        BulkAccountUpdater.Setting[] settings = BulkAccountUpdater.Setting.values();
+        // LOOPS: one menu line per setting
+        for (int i = 0; i < settings.length; i++) {
+            System.out.println((i + 1) + ". " + settings[i].getLabel());
+        }
+        System.out.print("Select setting (1-" + settings.length + "): ");
+        int choice = InputValidator.getIntInput(scanner);
+        if (choice < 1 || choice > settings.length) {
+            System.out.println("Invalid option.");
+            return;
+        }
+        BulkAccountUpdater.Setting setting = settings[choice - 1];
+        // Rates are entered as percentages and stored as decimals
+        double scale = setting == BulkAccountUpdater.Setting.INTEREST_RATE ? 100.0 : 1.0;
+        String unit = scale == 100.0 ? "%" : "";
+
+        System.out.print("Enter new value" + (unit.isEmpty() ? "" : " (as percentage)") +
+                         " (blank = current default " + formatSetting(setting.getDefault() * scale) + unit + "): ");
+        Double entered = readOptionalDouble(scanner);
+        if (entered == null) {
+            return;
+        }
+        double newValue = entered.isNaN() ? setting.getDefault() : entered / scale;
+        if (!setting.isValid(newValue)) {
+            System.out.println(setting == BulkAccountUpdater.Setting.MAX_WITHDRAWALS
+                ? "Maximum withdrawals must be a whole number greater than 0."
+                : "Value must be non-negative.");
+            return;
+        }
+
+        System.out.print("Only accounts with balance at least (blank = any): ");
+        Double minBalance = readOptionalDouble(scanner);
+        if (minBalance == null) {
+            return;
+        }
+        System.out.print("Only accounts with balance at most (blank = any): ");
+        Double maxBalance = readOptionalDouble(scanner);
+        if (maxBalance == null) {
+            return;
+        }
+        System.out.print("Only accounts whose current value is" + (unit.isEmpty() ? "" : " (as percentage)") + " (blank = any): ");
+        Double currentValue = readOptionalDouble(scanner);
+        if (currentValue == null) {
+            return;
+        }
+        BulkAccountUpdater.AccountFilter filter =
+            new BulkAccountUpdater.AccountFilter(minBalance, maxBalance, currentValue / scale);
+
+        int matches = BulkAccountUpdater.countMatches(setting, filter);
+        if (matches == 0) {
+            System.out.println("No accounts match.");
+            return;
+        }
+        if (!InputValidator.getConfirmation(scanner, "Set " + setting.getLabel().toLowerCase() + " to " +
+                formatSetting(newValue * scale) + unit + " on " + matches + " matching accounts? (yes/no): ")) {
+            System.out.println("Bulk update cancelled.");
+            return;
+        }
+
+        BulkAccountUpdater.UpdateResult result = BulkAccountUpdater.apply(setting, filter, newValue);
+        System.out.println("\n--- Summary ---");
+        System.out.println("Accounts Matched: " + result.getMatched() + ", Changed: " + result.getChanged() +
+                           ", Already at value: " + (result.getMatched() - result.getChanged()));
+        System.out.println("Elapsed: " + String.format("%.3f", result.getElapsedNanos() / 1_000_000_000.0) + "s");
+        if (result.getJournalFile() != null) {
+            System.out.println("Changes journaled in " + result.getJournalFile());
+        }
+        if (result.getChanged() == 0) {
+            System.out.println("No changes to save.");
+        } else {
+            System.out.println(result.isSaved() ? "Data saved." : "Warning: Failed to save data.");
+        }
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Reads an optional number.
+     *
+     * @return The number, NaN if the input was blank, or null (after a message) if it was invalid
+     */
+    private Double readOptionalDouble(Scanner scanner) {
+        String input = scanner.nextLine().trim();
+        if (input.isEmpty()) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(input);
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid number. Bulk update cancelled.");
+            return null;
+        }
+    }
+
+    private static String formatSetting(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.format("%.2f", value);
+    }
+
     /**
      * VOID METHOD: Set the default interest rate for all new savings accounts.
      */
@@ -624,6 +998,69 @@ public class SuperAdmin extends Admin {
         }
     }
 
+    /**
+     * VOID METHOD: Set how many days of transaction history stay in memory.
+     * Older transactions are moved to the compressed archive on the next save.
+     */
+    private void setArchiveHorizon(Scanner scanner) {
+        System.out.print("Enter archive horizon in days (0 to disable archiving): ");
+        try {
+            int days = (int) InputValidator.getValidatedDouble(scanner, "Invalid number of days. Please enter a valid number.");
+            if (days >= 0) {
+                SystemConfiguration.getInstance().setArchiveHorizonDays(days);
+                System.out.println(days == 0 ? "Transaction archiving disabled."
+                                             : "Transactions older than " + days + " days will be archived on save.");
+            } else {
+                System.out.println("Archive horizon cannot be negative.");
+            }
+        } catch (Exception e) {
+            System.out.println("Invalid input.");
+        }
+    }
+
+    /**
+     * VOID METHOD: Set the day of the month on which interest and fee batches run automatically.
+     */
+    private void setBatchRunDay(Scanner scanner) {
+        System.out.print("Enter day of month for interest and fee runs, charged on that day's balances (1-" + AppConstants.MAX_BATCH_RUN_DAY + ", 0 for manual only): ");
+        try {
+            int day = (int) InputValidator.getValidatedDouble(scanner, "Invalid day. Please enter a valid number.");
+            if (day >= 0 && day <= AppConstants.MAX_BATCH_RUN_DAY) {
+                SystemConfiguration.getInstance().setBatchRunDay(day);
+                System.out.println(day == 0 ? "Interest and fee runs are manual only."
+                                            : "Interest and fee runs will start on day " + day + " of each month, " +
+                                              "using the balances on that day.");
+            } else {
+                System.out.println("Day must be between 0 and " + AppConstants.MAX_BATCH_RUN_DAY + ".");
+            }
+        } catch (Exception e) {
+            System.out.println("Invalid input.");
+        }
+    }
+
+    /**
+     * VOID METHOD: Set the PBKDF2 iteration count used for new password hashes.
+     * Existing passwords keep their stored cost until the user next logs in.
+     */
+    private void setPasswordHashCost(Scanner scanner) {
+        System.out.print("Enter PBKDF2 iterations (" + AppConstants.MIN_PASSWORD_HASH_ITERATIONS + " to " +
+                         AppConstants.MAX_PASSWORD_HASH_ITERATIONS + "): ");
+        try {
+            int iterations = (int) InputValidator.getValidatedDouble(scanner, "Invalid number of iterations. Please enter a valid number.");
+            if (iterations >= AppConstants.MIN_PASSWORD_HASH_ITERATIONS
+                    && iterations <= AppConstants.MAX_PASSWORD_HASH_ITERATIONS) {
+                SystemConfiguration.getInstance().setPasswordHashIterations(iterations);
+                System.out.println("New passwords will be hashed with " + iterations + " iterations. " +
+                                   "Existing passwords are upgraded at their next login.");
+            } else {
+                System.out.println("Hash cost must be between " + AppConstants.MIN_PASSWORD_HASH_ITERATIONS + " and " +
+                                   AppConstants.MAX_PASSWORD_HASH_ITERATIONS + " iterations.");
+            }
+        } catch (Exception e) {
+            System.out.println("Invalid input.");
+        }
+    }
+
     /**
      * VOID METHOD: Set the maximum withdrawals per month for a specific savings account.
      */
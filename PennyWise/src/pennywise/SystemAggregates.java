@@ -0,0 +1,212 @@
+package pennywise;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SystemAggregates class keeps running system-wide totals for the report:
+ * total balance, total transactions, the number of savings and checking accounts and
+ * the number of regular users that have at least one account.
+ *
+ * The totals are updated where the data changes (balance changes, transaction records,
+ * accounts added to or removed from a registered user, user removal) instead of being
+ * recomputed by scanning every account. They are LongAdder counters, which stripe their
+ * updates across cells so concurrent writers do not contend, and balances are summed in
+ * whole cents so the totals stay exact. Reading a snapshot is O(1).
+ *
+ * verify() recomputes the same totals with a full scan and lists any difference.
+ */
+public class SystemAggregates {
+
+    private static final LongAdder balanceCents = new LongAdder();
+    private static final LongAdder transactionCount = new LongAdder();
+    private static final LongAdder accountCount = new LongAdder();
+    private static final LongAdder savingsAccountCount = new LongAdder();
+    private static final LongAdder checkingAccountCount = new LongAdder();
+    private static final LongAdder usersWithAccounts = new LongAdder();
+
+    /**
+     * Helper class holding one reading of the system-wide totals.
+     */
+    public static final class Snapshot {
+        private final long balanceCents;
+        private final long transactions;
+        private final long accounts;
+        private final long savingsAccounts;
+        private final long checkingAccounts;
+        private final long usersWithAccounts;
+
+        Snapshot(long balanceCents, long transactions, long accounts, long savingsAccounts, long checkingAccounts,
+                 long usersWithAccounts) {
+            this.balanceCents = balanceCents;
+            this.transactions = transactions;
+            this.accounts = accounts;
+            this.savingsAccounts = savingsAccounts;
+            this.checkingAccounts = checkingAccounts;
+            this.usersWithAccounts = usersWithAccounts;
+        }
+
+        public long getTotalBalanceCents() { return balanceCents; }
+        public double getTotalBalance() { return balanceCents / 100.0; }
+        public long getTotalTransactions() { return transactions; }
+        public long getAccountCount() { return accounts; }
+        public long getSavingsAccountCount() { return savingsAccounts; }
+        public long getCheckingAccountCount() { return checkingAccounts; }
+        public long getUsersWithAccounts() { return usersWithAccounts; }
+
+        /**
+         * VALUE RETURNING METHOD: Average balance over the regular users that have accounts.
+         */
+        public double getAverageBalancePerUser() {
+            return usersWithAccounts > 0 ? getTotalBalance() / usersWithAccounts : 0;
+        }
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Reads the running totals in O(1).
+     * Safe to call at any frequency; concurrent updates may or may not be included yet.
+     *
+     * @return Current totals
+     */
+    public static Snapshot snapshot() {
+        return new Snapshot(balanceCents.sum(), transactionCount.sum(), accountCount.sum(),
+                            savingsAccountCount.sum(), checkingAccountCount.sum(), usersWithAccounts.sum());
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Computes the same totals by scanning every account of every user.
+     *
+     * @return Totals from a full scan
+     */
+    public static Snapshot scan() {
+        long cents = 0;
+        long transactions = 0;
+        long accounts = 0;
+        long savings = 0;
+        long checking = 0;
+        long users = 0;
+        // LOOPS: every account of every registered user
+        for (RegularUser user : UserManager.getAllRegularUsers()) {
+            if (user == null) {
+                continue;
+            }
+            if (user.getAccountCount() > 0) {
+                users++;
+            }
+            for (Account account : user.getAccounts()) {
+                if (account == null) {
+                    continue;
+                }
+                cents += toCents(account.getBalance());
+                transactions += account.getTransactionCount();
+                accounts++;
+                if (account instanceof SavingsAccount) savings++;
+                else if (account instanceof CheckingAccount) checking++;
+            }
+        }
+        return new Snapshot(cents, transactions, accounts, savings, checking, users);
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Cross-checks the running totals against a full scan.
+     * Only meaningful while no balances are changing.
+     *
+     * @return One line per total that differs; empty if the totals agree
+     */
+    public static List<String> verify() {
+        Snapshot running = snapshot();
+        Snapshot scanned = scan();
+        List<String> differences = new ArrayList<>();
+        compare(differences, "Total balance (cents)", running.balanceCents, scanned.balanceCents);
+        compare(differences, "Total transactions", running.transactions, scanned.transactions);
+        compare(differences, "Accounts", running.accounts, scanned.accounts);
+        compare(differences, "Savings accounts", running.savingsAccounts, scanned.savingsAccounts);
+        compare(differences, "Checking accounts", running.checkingAccounts, scanned.checkingAccounts);
+        compare(differences, "Users with accounts", running.usersWithAccounts, scanned.usersWithAccounts);
+        return differences;
+    }
+
+    private static void compare(List<String> differences, String name, long running, long scanned) {
+        if (running != scanned) {
+            differences.add(name + ": running " + running + ", full scan " + scanned);
+        }
+    }
+
+    /**
+     * VOID METHOD: Starts counting an account that now belongs to a registered user.
+     * Called from UserManager.indexAccount; an account already counted is ignored.
+     * The account's monitor is the one Account holds while it changes the balance or the
+     * transaction count, so the values read here and the flag change as one step.
+     */
+    static void accountAdded(RegularUser owner, Account account) {
+        synchronized (account) {
+            if (account.isAggregated()) {
+                return;
+            }
+            account.setAggregated(true);
+            balanceCents.add(toCents(account.getBalance()));
+            transactionCount.add(account.getTransactionCount());
+        }
+        synchronized (owner) {
+            // SELECTION: the owner's first counted account makes them a user with accounts
+            if (owner.aggregatedAccountCount++ == 0) {
+                usersWithAccounts.increment();
+            }
+        }
+        accountCount.increment();
+        if (account instanceof SavingsAccount) savingsAccountCount.increment();
+        else if (account instanceof CheckingAccount) checkingAccountCount.increment();
+    }
+
+    /**
+     * VOID METHOD: Stops counting an account that was closed or whose owner was removed.
+     * Called from UserManager.unindexAccount; an account not counted is ignored.
+     */
+    static void accountRemoved(RegularUser owner, Account account) {
+        synchronized (account) {
+            if (!account.isAggregated()) {
+                return;
+            }
+            account.setAggregated(false);
+            balanceCents.add(-toCents(account.getBalance()));
+            transactionCount.add(-account.getTransactionCount());
+        }
+        synchronized (owner) {
+            if (--owner.aggregatedAccountCount == 0) {
+                usersWithAccounts.decrement();
+            }
+        }
+        accountCount.decrement();
+        if (account instanceof SavingsAccount) savingsAccountCount.decrement();
+        else if (account instanceof CheckingAccount) checkingAccountCount.decrement();
+    }
+
+    /**
+     * VOID METHOD: Applies a balance change of a counted account.
+     * The rounded old and new balances are used, so the total always equals
+     * the sum of the rounded account balances.
+     */
+    static void balanceChanged(double oldBalance, double newBalance) {
+        long delta = toCents(newBalance) - toCents(oldBalance);
+        if (delta != 0) {
+            balanceCents.add(delta);
+        }
+    }
+
+    /**
+     * VOID METHOD: Applies a change in the transaction count of a counted account.
+     */
+    static void transactionsRecorded(int count) {
+        transactionCount.add(count);
+    }
+
+    private static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    // Private constructor to prevent instantiation
+    private SystemAggregates() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+}
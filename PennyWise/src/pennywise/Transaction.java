@@ -9,6 +9,7 @@ public class Transaction {
     private final double amount;
     private final String type; // "DEPOSIT" or "WITHDRAWAL"
     private final String date;
+    private final double balanceAfter; // Account balance right after this transaction (NaN if unknown)
 
     /**
      * Constructor to initialize a transaction.
@@ -18,9 +19,22 @@ public class Transaction {
      * @param date The date of the transaction
      */
     public Transaction(double amount, String type, String date) {
+        this(amount, type, date, Double.NaN);
+    }
+
+    /**
+     * Constructor to initialize a transaction with the resulting account balance.
+     * 
+     * @param amount The transaction amount
+     * @param type The type of transaction (DEPOSIT or WITHDRAWAL)
+     * @param date The date of the transaction
+     * @param balanceAfter The account balance after the transaction
+     */
+    public Transaction(double amount, String type, String date, double balanceAfter) {
         this.amount = amount;
         this.type = type;
         this.date = date;
+        this.balanceAfter = balanceAfter;
     }
 
     // ENCAPSULATION: Getter methods
@@ -36,11 +50,43 @@ public class Transaction {
         return date;
     }
 
+    public double getBalanceAfter() {
+        return balanceAfter;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Checks whether the post-transaction balance is known.
+     * Transactions loaded from files written before running balances existed have none.
+     */
+    public boolean hasBalanceAfter() {
+        return !Double.isNaN(balanceAfter);
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Checks whether this transaction added money to the account.
+     * Credits are deposits (including initial deposits) and incoming transfers.
+     */
+    public boolean isCredit() {
+        return type.startsWith(AppConstants.TRANSACTION_DEPOSIT)
+            || type.startsWith(AppConstants.TRANSACTION_INITIAL_DEPOSIT)
+            || type.startsWith(AppConstants.TRANSACTION_TRANSFER_IN);
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Returns the amount with its effect on the balance (negative for debits).
+     */
+    public double getSignedAmount() {
+        return isCredit() ? amount : -amount;
+    }
+
     /**
      * VALUE RETURNING METHOD: Returns formatted transaction string.
      * Demonstrates a method that returns a value (not void).
      */
     public String getTransactionDetails() {
+        if (hasBalanceAfter()) {
+            return String.format("[%s] %s: $%.2f (Balance: $%.2f)", date, type, amount, balanceAfter);
+        }
         return String.format("[%s] %s: $%.2f", date, type, amount);
     }
 
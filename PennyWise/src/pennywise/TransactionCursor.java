@@ -0,0 +1,192 @@
+package pennywise;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * TransactionCursor class walks an account's transaction history in place.
+ * Demonstrates ENCAPSULATION and LOOPS over the account's transaction storage.
+ *
+ * A cursor is configured with fluent calls (order, type filter, date range, paging)
+ * and then iterated once. It reads transactions straight from the account, so no
+ * intermediate arrays are built. Date ranges are narrowed with the account's balance
+ * checkpoints, and skipping without a type filter is done by index arithmetic, so
+ * "the last N transactions" costs N steps regardless of history length.
+ * Archived transactions are read from disk on demand; if that fails, iterating throws
+ * the UncheckedIOException of Account.getTransaction.
+ *
+ * Example: account.transactions().reverse().limit(10)
+ */
+public class TransactionCursor implements Iterator<Transaction>, Iterable<Transaction> {
+
+    // ENCAPSULATION: Cursor configuration
+    private final Account account;
+    private boolean reverse;
+    private String typeExact;
+    private String typePrefix;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private int skip;
+    private int limit = Integer.MAX_VALUE;
+
+    // Iteration state
+    private boolean started;
+    private int position;   // next position to examine
+    private int endPosition; // last position in range (inclusive), walking direction aware
+    private int returned;
+    private Transaction pending;
+
+    /**
+     * Constructor creates a cursor over every transaction of an account, oldest first.
+     *
+     * @param account Account whose history is walked
+     */
+    TransactionCursor(Account account) {
+        this.account = account;
+    }
+
+    /**
+     * Walks the history newest first.
+     */
+    public TransactionCursor reverse() {
+        checkNotStarted();
+        this.reverse = true;
+        return this;
+    }
+
+    /**
+     * Keeps only transactions whose type is exactly the given type (e.g. "WITHDRAWAL").
+     */
+    public TransactionCursor ofType(String type) {
+        checkNotStarted();
+        this.typeExact = type;
+        return this;
+    }
+
+    /**
+     * Keeps only transactions whose type starts with the given prefix
+     * (e.g. "WITHDRAWAL" also matches "WITHDRAWAL Internal Transfer to ...").
+     */
+    public TransactionCursor ofTypePrefix(String prefix) {
+        checkNotStarted();
+        this.typePrefix = prefix;
+        return this;
+    }
+
+    /**
+     * Keeps only transactions dated between two days (both inclusive, either may be null).
+     */
+    public TransactionCursor between(LocalDate from, LocalDate to) {
+        checkNotStarted();
+        this.fromDate = from;
+        this.toDate = to;
+        return this;
+    }
+
+    /**
+     * Skips the first matching transactions.
+     */
+    public TransactionCursor skip(int count) {
+        checkNotStarted();
+        this.skip = Math.max(0, count);
+        return this;
+    }
+
+    /**
+     * Stops after returning the given number of transactions.
+     */
+    public TransactionCursor limit(int count) {
+        checkNotStarted();
+        this.limit = Math.max(0, count);
+        return this;
+    }
+
+    /**
+     * Restricts the cursor to one page of matching transactions.
+     *
+     * @param pageIndex Zero-based page number
+     * @param pageSize Number of transactions per page
+     */
+    public TransactionCursor page(int pageIndex, int pageSize) {
+        return skip(pageIndex * pageSize).limit(pageSize);
+    }
+
+    @Override
+    public Iterator<Transaction> iterator() {
+        return this;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (pending != null) {
+            return true;
+        }
+        if (!started) {
+            start();
+        }
+        if (returned >= limit) {
+            return false;
+        }
+        // LOOPS: advance to the next transaction that passes the filters
+        while (inRange(position)) {
+            Transaction candidate = account.getTransaction(position);
+            position += reverse ? -1 : 1;
+            if (candidate != null && matchesType(candidate)) {
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                pending = candidate;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Transaction next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Transaction next = pending;
+        pending = null;
+        returned++;
+        return next;
+    }
+
+    /**
+     * VOID METHOD: Resolves the position range once, when iteration begins.
+     */
+    private void start() {
+        started = true;
+        int first = fromDate == null ? 0 : account.firstPositionOnOrAfter(fromDate.toEpochDay());
+        int last = toDate == null ? account.getTransactionCount() - 1
+                                  : account.lastPositionOnOrBefore(toDate.toEpochDay());
+        position = reverse ? last : first;
+        endPosition = reverse ? first : last;
+
+        // SELECTION: without a type filter every position matches, so skipping is arithmetic
+        if (typeExact == null && typePrefix == null && skip > 0) {
+            position += reverse ? -skip : skip;
+            skip = 0;
+        }
+    }
+
+    private boolean inRange(int candidate) {
+        return reverse ? candidate >= endPosition : candidate <= endPosition;
+    }
+
+    private boolean matchesType(Transaction transaction) {
+        if (typeExact != null && !transaction.getType().equals(typeExact)) {
+            return false;
+        }
+        return typePrefix == null || transaction.getType().startsWith(typePrefix);
+    }
+
+    private void checkNotStarted() {
+        if (started) {
+            throw new IllegalStateException("Cursor cannot be reconfigured after iteration has started");
+        }
+    }
+}
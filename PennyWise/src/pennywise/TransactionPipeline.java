@@ -0,0 +1,510 @@
+package pennywise;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TransactionPipeline class implements the single-writer sharded execution mode.
+ * Accounts are partitioned across worker threads by account-number hash, and each
+ * worker is the only thread that ever mutates the accounts of its shard, so Account
+ * itself needs no locks.
+ *
+ * Deposit, withdraw and transfer commands are submitted to the owning shard's bounded
+ * queue and the caller waits for the result. A transfer between accounts on different
+ * shards is executed as a debit on the source shard followed by a credit message to
+ * the destination shard. Both transaction histories are checked for room before the
+ * debit, and the source shard keeps one slot of the source's history reserved until the
+ * credit settles. If the destination fills up in the meantime, the credit shard sends a
+ * reversal back to the source shard, which posts it into the reserved slot, and the
+ * transfer reports failure with the money returned.
+ *
+ * When the pipeline has not been started, the static helpers run the operation directly
+ * on the calling thread, so the console flow behaves exactly as before.
+ */
+public class TransactionPipeline {
+
+    // Command kinds handled by a shard worker
+    private enum CommandType { DEPOSIT, WITHDRAW, TRANSFER_DEBIT, TRANSFER_CREDIT, TRANSFER_SETTLED, TRANSFER_REVERSAL,
+                               WAKE_UP, STOP }
+
+    /**
+     * Helper class describing one unit of work for a shard.
+     * Immutable once submitted; the result future is completed by the owning worker.
+     */
+    private static final class Command {
+        final CommandType type;
+        final Account account;
+        final double amount;
+        final String reason;         // null means "use the plain deposit/withdraw"
+        final Account target;        // transfers only (the source account on a credit)
+        final String targetReason;   // transfers only
+        final CompletableFuture<Boolean> result;
+
+        Command(CommandType type, Account account, double amount, String reason,
+                Account target, String targetReason, CompletableFuture<Boolean> result) {
+            this.type = type;
+            this.account = account;
+            this.amount = amount;
+            this.reason = reason;
+            this.target = target;
+            this.targetReason = targetReason;
+            this.result = result;
+        }
+    }
+
+    private static final Command WAKE_UP = new Command(CommandType.WAKE_UP, null, 0, null, null, null, null);
+    private static final Command STOP = new Command(CommandType.STOP, null, 0, null, null, null, null);
+
+    // SINGLETON: Running pipeline, or null when commands execute inline
+    private static volatile TransactionPipeline instance;
+
+    // ENCAPSULATION: Private pipeline state
+    private final Shard[] shards;
+    private final AtomicInteger pendingCommands = new AtomicInteger();
+    private final Object idleLock = new Object(); // signalled when pendingCommands drops to 0 after close
+    private volatile boolean closed;
+
+    /**
+     * Constructor creates (but does not start) the shard workers.
+     *
+     * @param workerCount Number of shards / worker threads
+     * @param queueCapacity Capacity of each shard's command queue
+     */
+    private TransactionPipeline(int workerCount, int queueCapacity) {
+        this.shards = new Shard[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            shards[i] = new Shard(i, queueCapacity);
+        }
+    }
+
+    /**
+     * VOID METHOD: Starts the sharded execution mode.
+     * Has no effect if the pipeline is already running.
+     *
+     * @param workerCount Number of worker threads (at least 1)
+     */
+    public static synchronized void start(int workerCount) {
+        if (instance != null) {
+            return;
+        }
+        TransactionPipeline pipeline = new TransactionPipeline(Math.max(1, workerCount),
+                                                               AppConstants.PIPELINE_QUEUE_CAPACITY);
+        for (Shard shard : pipeline.shards) {
+            shard.thread.start();
+        }
+        instance = pipeline;
+    }
+
+    /**
+     * VOID METHOD: Stops the sharded execution mode.
+     * New commands run inline immediately; commands already in flight (including the credit
+     * half of cross-shard transfers) are completed before the workers exit.
+     */
+    public static synchronized void shutdown() {
+        TransactionPipeline pipeline = instance;
+        if (pipeline == null) {
+            return;
+        }
+        instance = null;
+        pipeline.closed = true;
+
+        // LOOPS: wait for in-flight commands so no credit message is lost
+        synchronized (pipeline.idleLock) {
+            while (pipeline.pendingCommands.get() > 0) {
+                try {
+                    pipeline.idleLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+
+        for (Shard shard : pipeline.shards) {
+            shard.enqueue(STOP);
+        }
+        for (Shard shard : pipeline.shards) {
+            try {
+                shard.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Checks whether the sharded mode is active.
+     */
+    public static boolean isRunning() {
+        return instance != null;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Returns the number of worker threads, or 0 when not running.
+     */
+    public static int getWorkerCount() {
+        TransactionPipeline pipeline = instance;
+        return pipeline == null ? 0 : pipeline.shards.length;
+    }
+
+    // ---------------- Command submission ----------------
+
+    /**
+     * VALUE RETURNING METHOD: Deposits into an account through its owning shard.
+     *
+     * @param account Account to deposit into
+     * @param amount Amount to deposit
+     * @return true if deposit successful, false otherwise
+     */
+    public static boolean deposit(Account account, double amount) {
+        return deposit(account, amount, null);
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Deposits into an account with a reason through its owning shard.
+     *
+     * @param account Account to deposit into
+     * @param amount Amount to deposit
+     * @param reason Reason recorded on the transaction (null for a plain deposit)
+     * @return true if deposit successful, false otherwise
+     */
+    public static boolean deposit(Account account, double amount, String reason) {
+        TransactionPipeline pipeline = instance;
+        if (pipeline == null) {
+            return applyDeposit(account, amount, reason);
+        }
+        return pipeline.submit(CommandType.DEPOSIT, account, amount, reason, null, null);
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Withdraws from an account through its owning shard.
+     * POLYMORPHISM: the account's own withdraw rules (limits, overdraft) still apply.
+     *
+     * @param account Account to withdraw from
+     * @param amount Amount to withdraw
+     * @return true if withdrawal successful, false otherwise
+     */
+    public static boolean withdraw(Account account, double amount) {
+        return withdraw(account, amount, null);
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Withdraws from an account with a reason through its owning shard.
+     *
+     * @param account Account to withdraw from
+     * @param amount Amount to withdraw
+     * @param reason Reason recorded on the transaction (null for a plain withdrawal)
+     * @return true if withdrawal successful, false otherwise
+     */
+    public static boolean withdraw(Account account, double amount, String reason) {
+        TransactionPipeline pipeline = instance;
+        if (pipeline == null) {
+            return applyWithdraw(account, amount, reason);
+        }
+        return pipeline.submit(CommandType.WITHDRAW, account, amount, reason, null, null);
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Moves money between two accounts.
+     * The source is debited first; the destination is only credited if the debit succeeded.
+     * Nothing moves if either transaction history is full (IllegalStateException, as for a
+     * single account).
+     *
+     * @param from Source account
+     * @param to Destination account
+     * @param amount Amount to transfer
+     * @param withdrawReason Reason recorded on the source account
+     * @param depositReason Reason recorded on the destination account
+     * @return true if the transfer happened, false if the debit was refused
+     */
+    public static boolean transfer(Account from, Account to, double amount,
+                                   String withdrawReason, String depositReason) {
+        TransactionPipeline pipeline = instance;
+        if (pipeline == null) {
+            return runInline(CommandType.TRANSFER_DEBIT, from, amount, withdrawReason, to, depositReason);
+        }
+        return pipeline.submit(CommandType.TRANSFER_DEBIT, from, amount, withdrawReason, to, depositReason);
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Enqueues a command on the owning shard and waits for its result.
+     */
+    private boolean submit(CommandType type, Account account, double amount, String reason,
+                           Account target, String targetReason) {
+        pendingCommands.incrementAndGet();
+        // SELECTION: a caller racing with shutdown() falls back to inline execution
+        if (closed) {
+            commandFinished();
+            return runInline(type, account, amount, reason, target, targetReason);
+        }
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        shardFor(account).enqueue(new Command(type, account, amount, reason, target, targetReason, result));
+        return await(result);
+    }
+
+    /**
+     * VOID METHOD: Counts a command as finished and wakes shutdown() when it was the last one.
+     */
+    private void commandFinished() {
+        // SELECTION: shutdown() only waits once closed is set, before it checks the count
+        if (pendingCommands.decrementAndGet() == 0 && closed) {
+            synchronized (idleLock) {
+                idleLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Waits for a command result.
+     * Runtime failures raised on the worker are rethrown to the caller unchanged.
+     */
+    private static boolean await(CompletableFuture<Boolean> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Returns the shard that owns an account.
+     */
+    private Shard shardFor(Account account) {
+        return shards[Math.floorMod(account.getAccountNumber().hashCode(), shards.length)];
+    }
+
+    // ---------------- Inline operations (run on the owning thread) ----------------
+
+    /**
+     * VALUE RETURNING METHOD: Runs a command directly on the calling thread.
+     */
+    private static boolean runInline(CommandType type, Account account, double amount, String reason,
+                                     Account target, String targetReason) {
+        // SELECTION: switch on command type
+        switch (type) {
+            case DEPOSIT:
+                return applyDeposit(account, amount, reason);
+            case WITHDRAW:
+                return applyWithdraw(account, amount, reason);
+            case TRANSFER_DEBIT:
+                requireHistoryRoom(account);
+                requireHistoryRoom(target);
+                if (applyWithdraw(account, amount, reason)) {
+                    applyDeposit(target, amount, targetReason);
+                    return true;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * VOID METHOD: Fails before a transfer starts if an account has no free history slot.
+     */
+    private static void requireHistoryRoom(Account account) {
+        if (account.getFreeTransactionSlots() <= 0) {
+            throw new IllegalStateException("Transaction history limit reached for account " + account.getAccountNumber());
+        }
+    }
+
+    private static boolean applyDeposit(Account account, double amount, String reason) {
+        return reason == null ? account.deposit(amount) : account.deposit(amount, reason);
+    }
+
+    private static boolean applyWithdraw(Account account, double amount, String reason) {
+        return reason == null ? account.withdraw(amount) : account.withdraw(amount, reason);
+    }
+
+    /**
+     * Shard worker: owns a bounded command queue and every account hashed to it.
+     * Credit messages from other shards go to a separate inbox so a worker never blocks
+     * on another shard's full queue (which could otherwise deadlock two shards).
+     */
+    private final class Shard implements Runnable {
+        private final BlockingQueue<Command> queue;
+        private final ConcurrentLinkedQueue<Command> credits = new ConcurrentLinkedQueue<>();
+        // History slots held for reversals of transfers out of this shard; only the worker uses it
+        private final Map<Account, Integer> reservedSlots = new IdentityHashMap<>();
+        private final Thread thread;
+
+        Shard(int index, int queueCapacity) {
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.thread = new Thread(this, "pennywise-shard-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        /**
+         * VOID METHOD: Adds a command, blocking while the queue is full (back-pressure).
+         */
+        void enqueue(Command command) {
+            try {
+                queue.put(command);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                completeFailed(command, new IllegalStateException("Interrupted while submitting command"));
+            }
+        }
+
+        /**
+         * VOID METHOD: Delivers the credit half of a cross-shard transfer.
+         * If the queue is full the worker is busy and drains the inbox before its next command.
+         */
+        void deliverCredit(Command credit) {
+            credits.add(credit);
+            queue.offer(WAKE_UP);
+        }
+
+        @Override
+        public void run() {
+            // LOOPS: drain commands until told to stop
+            while (true) {
+                Command command;
+                try {
+                    command = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                drainCredits();
+                if (command.type == CommandType.STOP) {
+                    break;
+                }
+                if (command.type != CommandType.WAKE_UP) {
+                    execute(command);
+                }
+            }
+            drainCredits();
+        }
+
+        private void drainCredits() {
+            Command credit;
+            while ((credit = credits.poll()) != null) {
+                execute(credit);
+            }
+        }
+
+        /**
+         * VOID METHOD: Executes a command against accounts owned by this shard.
+         */
+        private void execute(Command command) {
+            try {
+                // SELECTION: switch on command type
+                switch (command.type) {
+                    case DEPOSIT:
+                        requireUnreservedRoom(command.account, 1);
+                        complete(command, applyDeposit(command.account, command.amount, command.reason));
+                        break;
+                    case WITHDRAW:
+                        requireUnreservedRoom(command.account, 1);
+                        complete(command, applyWithdraw(command.account, command.amount, command.reason));
+                        break;
+                    case TRANSFER_DEBIT: {
+                        // One slot for the debit and one held back for a possible reversal.
+                        // The destination is read from another shard here; the credit checks it again
+                        requireUnreservedRoom(command.account, 2);
+                        requireHistoryRoom(command.target);
+                        if (!applyWithdraw(command.account, command.amount, command.reason)) {
+                            complete(command, false);
+                            break;
+                        }
+                        reservedSlots.merge(command.account, 1, Integer::sum);
+                        Command credit = new Command(CommandType.TRANSFER_CREDIT, command.target, command.amount,
+                                                     command.targetReason, command.account, null, command.result);
+                        routeTo(command.target, credit);
+                        break;
+                    }
+                    case TRANSFER_CREDIT:
+                        settleCredit(command);
+                        break;
+                    case TRANSFER_SETTLED:
+                        releaseSlot(command.account);
+                        complete(command, true);
+                        break;
+                    case TRANSFER_REVERSAL:
+                        // The reserved slot is freed first, so this deposit always has room
+                        releaseSlot(command.account);
+                        applyDeposit(command.account, command.amount, command.reason);
+                        complete(command, false);
+                        break;
+                    default:
+                        break;
+                }
+            } catch (RuntimeException e) {
+                completeFailed(command, e);
+            }
+        }
+
+        /**
+         * VOID METHOD: Credits the destination of a transfer, then tells the source shard
+         * to release its reserved slot, or to post a reversal into it if the credit failed.
+         */
+        private void settleCredit(Command credit) {
+            boolean credited;
+            try {
+                // SELECTION: the destination may have filled up after the debit
+                credited = credit.account.getFreeTransactionSlots() - reserved(credit.account) > 0 &&
+                           applyDeposit(credit.account, credit.amount, credit.reason);
+            } catch (RuntimeException e) {
+                credited = false;
+            }
+            Command next = credited
+                ? new Command(CommandType.TRANSFER_SETTLED, credit.target, credit.amount, null, null, null, credit.result)
+                : new Command(CommandType.TRANSFER_REVERSAL, credit.target, credit.amount,
+                              "reversal of transfer to " + credit.account.getAccountNumber(), null, null, credit.result);
+            routeTo(credit.target, next);
+        }
+
+        /**
+         * VOID METHOD: Fails if an account owned by this shard has fewer free history slots
+         * than needed once the slots reserved for reversals are set aside.
+         */
+        private void requireUnreservedRoom(Account account, int needed) {
+            if (account.getFreeTransactionSlots() - reserved(account) < needed) {
+                throw new IllegalStateException("Transaction history limit reached for account " + account.getAccountNumber());
+            }
+        }
+
+        private int reserved(Account account) {
+            return reservedSlots.getOrDefault(account, 0);
+        }
+
+        private void releaseSlot(Account account) {
+            reservedSlots.computeIfPresent(account, (a, count) -> count > 1 ? count - 1 : null);
+        }
+
+        /**
+         * VOID METHOD: Runs the next step of a transfer on the shard that owns its account.
+         */
+        private void routeTo(Account account, Command command) {
+            Shard owner = shardFor(account);
+            if (owner == this) {
+                execute(command);
+            } else {
+                owner.deliverCredit(command);
+            }
+        }
+
+        private void complete(Command command, boolean success) {
+            command.result.complete(success);
+            commandFinished();
+        }
+
+        private void completeFailed(Command command, RuntimeException e) {
+            command.result.completeExceptionally(e);
+            commandFinished();
+        }
+    }
+}
@@ -7,13 +7,19 @@
  */
 
 package pennywise;
+
+import java.util.Arrays;
+
 public abstract class User {
     // ENCAPSULATION: Private fields with getters and setters
     private String userId;
     private String username;
     private String password;
     private String email;
-    private Account[] accounts = null; 
+    // ARRAYS: Accounts in a capacity-doubling array; only the first accountCount slots are used
+    private Account[] accounts = new Account[0];
+    private int accountCount;
+    private Account[] accountsView; // Compact copy handed out by getAccounts(), rebuilt after changes
     
     /**
      * Constructor to initialize User attributes.
@@ -63,25 +69,91 @@ public abstract class User {
         this.email = email;
     }
 
+    /**
+     * VALUE RETURNING METHOD: Returns the user's accounts as a compact array.
+     * The array is shared until the accounts change, so callers must not modify it.
+     * 
+     * @return Accounts in the order they were added (empty if the user has none)
+     */
     public Account[] getAccounts() {
-        return accounts;
+        Account[] view = accountsView;
+        if (view == null) {
+            view = Arrays.copyOf(accounts, accountCount);
+            accountsView = view;
+        }
+        return view;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Returns the number of accounts without building the array view.
+     */
+    public int getAccountCount() {
+        return accountCount;
     }
 
     public void setAccounts(Account[] accounts) {
-        this.accounts = accounts;
+        // Keep the global account-number index in step with the replaced array
+        if (this instanceof RegularUser) {
+            for (int i = 0; i < accountCount; i++) {
+                UserManager.unindexAccount((RegularUser) this, this.accounts[i]);
+            }
+            if (accounts != null) {
+                for (Account account : accounts) {
+                    UserManager.indexAccount((RegularUser) this, account);
+                }
+            }
+        }
+        this.accounts = accounts == null ? new Account[0] : accounts.clone();
+        this.accountCount = this.accounts.length;
+        this.accountsView = null;
     }
 
     public void addAccount(Account account) {
-        if (accounts == null) {
-            accounts = new Account[1];
-            accounts[0] = account;
-        } else {
-            // Create a new array with one additional slot
-            Account[] newAccounts = new Account[accounts.length + 1];
-            System.arraycopy(accounts, 0, newAccounts, 0, accounts.length);
-            newAccounts[accounts.length] = account; // Add new account to the end
-            accounts = newAccounts; // Replace old array with new array
+        // ARRAYS: double the capacity when full, so adding n accounts copies O(n) slots in total
+        if (accountCount == accounts.length) {
+            accounts = Arrays.copyOf(accounts, Math.max(4, accounts.length * 2));
+        }
+        accounts[accountCount] = account; // Add new account to the end
+        accountCount++;
+        accountsView = null;
+        if (this instanceof RegularUser) {
+            UserManager.indexAccount((RegularUser) this, account);
+        }
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Removes an account (e.g. when it is closed).
+     * The remaining accounts keep their order.
+     * 
+     * @param account Account to remove
+     * @return true if the account belonged to this user and was removed
+     */
+    public boolean removeAccount(Account account) {
+        if (account == null) {
+            return false;
+        }
+        
+        int removeIndex = -1;
+        for (int i = 0; i < accountCount; i++) {
+            if (accounts[i] == account) {
+                removeIndex = i;
+                break;
+            }
+        }
+        if (removeIndex == -1) {
+            return false;
+        }
+        
+        // Close the gap in place
+        System.arraycopy(accounts, removeIndex + 1, accounts, removeIndex, accountCount - removeIndex - 1);
+        accountCount--;
+        accounts[accountCount] = null;
+        accountsView = null;
+        
+        if (this instanceof RegularUser) {
+            UserManager.unindexAccount((RegularUser) this, account);
         }
+        return true;
     }
 
     /**
@@ -99,7 +171,7 @@ public abstract class User {
         System.out.println("Username: " + username);
         System.out.println("Email: " + email);
         System.out.println("\nAccounts:");
-        for (Account account : accounts) {
+        for (Account account : getAccounts()) {
             if (account != null) {
                 System.out.println("  [" + account.getAccountNumber() + "] " + 
                                  account.getAccountType() + " - Balance: $" + InputValidator.formatMoney(account.getBalance()));
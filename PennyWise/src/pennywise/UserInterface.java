@@ -11,6 +11,7 @@ import pennywise.data.DataStorage;
  */
 public class UserInterface {
     private final Scanner scanner;
+    private String sessionToken; // token of the logged-in user, null when logged out
     
     /**
      * Constructor initializes the UserInterface with a Scanner.
@@ -90,8 +91,11 @@ public class UserInterface {
             return; // Validation failed or cancelled
         }
         
-        // Hash the password before storing
-        String hashedPassword = PasswordUtil.hashPassword(password);
+        // Hash the password before storing (on the shared, bounded hashing workers)
+        String hashedPassword = PasswordVerifier.hash(password);
+        if (hashedPassword == null) {
+            return; // Hashing workers busy, message already shown
+        }
         
         // Get and validate email
         String email = InputValidator.getValidatedEmail(scanner, "Enter Email: ");
@@ -124,7 +128,7 @@ public class UserInterface {
                 // Proceed to user menu
                 userAccountMenu(newUser);
             } else {
-                System.out.println("Registration failed. Maximum user limit reached.");
+                System.out.println("Registration failed. Username already exists.");
             }
         } else {
             System.out.println("Failed to create account. Registration cancelled.");
@@ -160,6 +164,7 @@ public class UserInterface {
      */
     public void userAccountMenu(RegularUser user) {
         boolean userLoggedIn = true;
+        sessionToken = SessionManager.createSession(user);
         
         while (userLoggedIn) {
             // Check if user has any checking accounts for external transfers
@@ -182,6 +187,13 @@ public class UserInterface {
             
             int choice = InputValidator.getIntInput(scanner);
             
+            // Each operation checks the session token instead of the password
+            if (SessionManager.validateSession(sessionToken) != user) {
+                System.out.println("Your session has expired. Please log in again.");
+                sessionToken = null;
+                return;
+            }
+            
             // Adjust choice if no checking account (shift down by 1 for options 6+)
             if (!hasCheckingAccount && choice >= 6) {
                 choice++; // Map 6->7, 7->8, 8->9, 9->10
@@ -221,6 +233,8 @@ public class UserInterface {
                     break;
                 case 10:
                     userLoggedIn = false;
+                    SessionManager.invalidateSession(sessionToken);
+                    sessionToken = null;
                     System.out.println("Logged out successfully.");
                     break;
                 default:
@@ -299,7 +313,7 @@ public class UserInterface {
             double amount = InputValidator.getValidatedAmount(scanner, "Enter deposit amount: $");
             
             if (amount > 0) {
-                account.deposit(amount);
+                TransactionPipeline.deposit(account, amount);
                 System.out.println("Deposit successful!");
                 System.out.println("New balance: " + InputValidator.formatMoney(account.getBalance()));
                 
@@ -329,7 +343,7 @@ public class UserInterface {
             double amount = InputValidator.getValidatedAmount(scanner, "Enter withdrawal amount: $");
             
             if (amount > 0) {
-                if (account.withdraw(amount)) {
+                if (TransactionPipeline.withdraw(account, amount)) {
                     System.out.println("Withdrawal successful!");
                     System.out.println("New balance: " + InputValidator.formatMoney(account.getBalance()));
                     
@@ -387,9 +401,9 @@ public class UserInterface {
         double amount = InputValidator.getValidatedAmount(scanner, "Enter transfer amount: $");
         
         if (amount > 0) {
-            if (fromAccount.withdraw(amount, "Internal Transfer to " + toAccount.getAccountNumber())) {
-                toAccount.deposit(amount, "Internal Transfer from " + fromAccount.getAccountNumber());
-                
+            if (TransactionPipeline.transfer(fromAccount, toAccount, amount,
+                                             "Internal Transfer to " + toAccount.getAccountNumber(),
+                                             "Internal Transfer from " + fromAccount.getAccountNumber())) {
                 // Transfer already recorded in deposit/withdraw
                 // No need to record again as Account class handles it
                 
@@ -451,12 +465,9 @@ public class UserInterface {
         }
         
         // Check if destination account belongs to current user
-        Account[] userAccounts = user.getAccounts();
-        for (Account account : userAccounts) {
-            if (account != null && account.getAccountNumber().equals(destAccountNumber)) {
-                System.out.println("Cannot transfer to your own account. Use internal transfer instead.");
-                return;
-            }
+        if (UserManager.findAccountOwner(destAccountNumber) == user) {
+            System.out.println("Cannot transfer to your own account. Use internal transfer instead.");
+            return;
         }
         
         // Only allow transfers to checking accounts
@@ -470,9 +481,9 @@ public class UserInterface {
         double amount = InputValidator.getValidatedAmount(scanner, "Enter transfer amount: $");
         
         if (amount > 0) {
-            if (fromAccount.withdraw(amount, "External Transfer" + " to " + destAccountNumber)) {
-                toAccount.deposit(amount, "External Transfer" + " from " + fromAccount.getAccountNumber());
-                
+            if (TransactionPipeline.transfer(fromAccount, toAccount, amount,
+                                             "External Transfer" + " to " + destAccountNumber,
+                                             "External Transfer" + " from " + fromAccount.getAccountNumber())) {
                 // Transfer already recorded in deposit/withdraw
                 // No need to record again as Account class handles it
                 
@@ -552,8 +563,8 @@ public class UserInterface {
             
             Account destAccount = accounts[destIndex];
             double balanceToTransfer = accountToClose.getBalance();
-            accountToClose.withdraw(balanceToTransfer, "ACCOUNT CLOSURE TRANSFER");
-            destAccount.deposit(balanceToTransfer, "ACCOUNT CLOSURE TRANSFER FROM " + accountToClose.getAccountNumber());
+            TransactionPipeline.transfer(accountToClose, destAccount, balanceToTransfer, "ACCOUNT CLOSURE TRANSFER",
+                                         "ACCOUNT CLOSURE TRANSFER FROM " + accountToClose.getAccountNumber());
             
             System.out.println("\nTransfer from account closure completed!");
             System.out.println("From: " + accountToClose.getAccountNumber() + " (Amount: $" + 
@@ -562,15 +573,8 @@ public class UserInterface {
                              InputValidator.formatMoney(destAccount.getBalance()) + ")");
         }
         
-        // Remove the account from user's accounts
-        Account[] newAccounts = new Account[accounts.length - 1];
-        int index = 0;
-        for (Account account : accounts) {
-            if (account != accountToClose) {
-                newAccounts[index++] = account;
-            }
-        }
-        user.setAccounts(newAccounts);
+        // Remove the account from user's accounts (also drops it from the account-number index)
+        user.removeAccount(accountToClose);
         
         System.out.println("\nAccount " + accountToClose.getAccountNumber() + " has been closed successfully.");
         
@@ -593,8 +597,43 @@ public class UserInterface {
         Account account = AccountManager.selectAccount(scanner, accounts, "Select account:");
         
         if (account != null) {
-            account.displayTransactionHistory();
+            displayTransactionPages(account);
+        }
+    }
+    
+    /**
+     * Displays an account's transactions newest first, one page at a time.
+     * @param account The account whose history is shown
+     */
+    private void displayTransactionPages(Account account) {
+        System.out.println("\n========== Transaction History ==========");
+        System.out.println("Account: " + account.getAccountNumber() + " (" + account.getTransactionCount() + " transactions)");
+        
+        int pageSize = AppConstants.TRANSACTION_PAGE_SIZE;
+        int page = 0;
+        boolean morePages = true;
+        // LOOPS: show pages until the user stops or history runs out
+        while (morePages) {
+            int shown = 0;
+            try {
+                for (Transaction transaction : account.transactions().reverse().page(page, pageSize)) {
+                    System.out.print("  ");
+                    transaction.displayTransaction();
+                    shown++;
+                }
+            } catch (java.io.UncheckedIOException e) {
+                System.out.println("Error: " + e.getMessage());
+                break;
+            }
+            
+            if (shown == 0 && page == 0) {
+                System.out.println("No transactions yet.");
+            }
+            page++;
+            morePages = shown == pageSize && page * pageSize < account.getTransactionCount()
+                        && InputValidator.getConfirmation(scanner, "Show older transactions? (yes/no): ");
         }
+        System.out.println("=========================================");
     }
     
     /**
@@ -643,13 +682,12 @@ public class UserInterface {
         String newUsername = InputValidator.getValidatedUsername(scanner, "Enter new username: ");
         
         if (newUsername != null) {
-            // Check for duplicate username
-            if (UserManager.usernameExists(newUsername)) {
+            // Rename through the manager, which also rejects duplicate usernames
+            if (!UserManager.renameRegularUser(user, newUsername)) {
                 System.out.println("Username already exists. Please choose a different username.");
                 return;
             }
             
-            user.setUsername(newUsername);
             System.out.println("Username updated successfully!");
             
             // Save data after profile update
@@ -667,7 +705,7 @@ public class UserInterface {
         String currentPassword = scanner.nextLine().trim();
         
         // Verify current password
-        if (!PasswordUtil.verifyPassword(currentPassword, user.getPassword())) {
+        if (!PasswordVerifier.verify(currentPassword, user.getPassword())) {
             System.out.println("Current password is incorrect.");
             return;
         }
@@ -676,10 +714,18 @@ public class UserInterface {
         
         if (newPassword != null) {
             // Hash the new password
-            String hashedPassword = PasswordUtil.hashPassword(newPassword);
+            String hashedPassword = PasswordVerifier.hash(newPassword);
+            if (hashedPassword == null) {
+                System.out.println("Password not changed.");
+                return;
+            }
             user.setPassword(hashedPassword);
             System.out.println("Password updated successfully!");
             
+            // Sessions opened with the old password end; this one continues with a new token
+            SessionManager.invalidateUserSessions(user);
+            sessionToken = SessionManager.createSession(user);
+            
             // Save data after profile update
             DataStorage.saveAllData();
         }
@@ -694,7 +740,7 @@ public class UserInterface {
         String newEmail = InputValidator.getValidatedEmail(scanner, "Enter new email: ");
         
         if (newEmail != null) {
-            user.setEmail(newEmail);
+            UserManager.changeEmail(user, newEmail);
             System.out.println("Email updated successfully!");
             
             // Save data after profile update
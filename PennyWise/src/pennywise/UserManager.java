@@ -1,5 +1,17 @@
 package pennywise;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import pennywise.data.DataStorage;
+
 /**
  * UserManager class handles all user-related operations.
  * Demonstrates encapsulation
@@ -8,52 +20,124 @@ package pennywise;
  * - User storage and retrieval
  * - User authentication
  * - User CRUD operations
+ * 
+ * Users are kept in a growable registry with concurrent hash indexes on top,
+ * so registration and lookups are safe from several threads and have no fixed limit.
  */
 public class UserManager {
     
-    // ENCAPSULATION: Private user storage
-    private static final User[] users = new User[AppConstants.MAX_USERS];
-    private static int userCount = 0;
+    // ENCAPSULATION: Private user storage in registration order
+    private static final UserRegistry users = new UserRegistry();
+    
+    // Hash index: username -> regular user, kept in sync on add, remove and rename
+    private static final Map<String, RegularUser> usersByUsername = new ConcurrentHashMap<>();
+    
+    // Hash index: account number -> (owner, account), kept in sync on account add, close and user removal
+    private static final Map<String, AccountEntry> accountsByNumber = new ConcurrentHashMap<>();
+    private static final Set<RegularUser> registeredUsers = ConcurrentHashMap.newKeySet();
+    
+    // Secondary indexes for admin search, kept in sync on add, remove, rename and email change
+    private static final Map<String, RegularUser> usersByUserId = new ConcurrentHashMap<>();
+    // Sorted by lower-case username: "username\0Username" (prefix search)
+    private static final ConcurrentSkipListMap<String, RegularUser> usernamesSorted = new ConcurrentSkipListMap<>();
+    // Sorted by lower-case email, domain first: "domain@local\0username" (exact email and domain search)
+    private static final ConcurrentSkipListMap<String, RegularUser> emailsByDomain = new ConcurrentSkipListMap<>();
+    
+    /**
+     * Helper class holding one page of search results.
+     * Pass getNextCursor() to the same search to fetch the following page.
+     */
+    public static final class UserSearchPage {
+        private final List<RegularUser> users;
+        private final String nextCursor;
+        
+        UserSearchPage(List<RegularUser> users, String nextCursor) {
+            this.users = Collections.unmodifiableList(users);
+            this.nextCursor = nextCursor;
+        }
+        
+        public List<RegularUser> getUsers() {
+            return users;
+        }
+        
+        public boolean hasMore() {
+            return nextCursor != null;
+        }
+        
+        public String getNextCursor() {
+            return nextCursor;
+        }
+    }
+    
+    /**
+     * Helper class pairing an indexed account with its owner.
+     */
+    private static final class AccountEntry {
+        final RegularUser owner;
+        final Account account;
+        
+        AccountEntry(RegularUser owner, Account account) {
+            this.owner = owner;
+            this.account = account;
+        }
+    }
     
     /**
-     * VALUE RETURNING METHOD: Gets the total number of users.
+     * VALUE RETURNING METHOD: Gets the number of user positions, for use with getUser(index).
+     * Removed users keep their position (getUser returns null) until the registry is compacted.
      * 
-     * @return number of registered users
+     * @return number of user positions
      */
     public static int getUserCount() {
-        return userCount;
+        return users.size();
+    }
+    
+    /**
+     * VALUE RETURNING METHOD: Gets the number of registered users, removed users not counted.
+     * 
+     * @return number of registered users
+     */
+    public static int getRegisteredUserCount() {
+        return users.liveCount();
     }
     
     /**
      * VALUE RETURNING METHOD: Gets a user by index.
      * 
      * @param index Index of the user
-     * @return User at the specified index, or null if not found
+     * @return User at the specified index, or null if not found or removed
      */
     public static User getUser(int index) {
-        if (index >= 0 && index < userCount) {
-            return users[index];
-        }
-        return null;
+        return users.get(index);
     }
     
     /**
      * VALUE RETURNING METHOD: Adds a regular user to the system.
+     * Safe to call from several threads; the username check and claim are one atomic step.
      * 
      * @param user RegularUser to add
-     * @return true if added successfully, false if array is full
+     * @return true if added successfully, false if the username is already taken
      */
     public static boolean addRegularUser(RegularUser user) {
         if (user == null) {
             return false;
         }
         
-        if (userCount < users.length) {
-            users[userCount] = user;
-            userCount++;
-            return true;
+        // SELECTION: claim the username first so two registrations cannot both succeed
+        if (usersByUsername.putIfAbsent(user.getUsername(), user) != null) {
+            return false;
+        }
+        
+        users.append(user);
+        registeredUsers.add(user);
+        indexSearchKeys(user);
+        Account[] accounts = user.getAccounts();
+        if (accounts != null) {
+            for (Account account : accounts) {
+                indexAccount(user, account);
+            }
         }
-        return false;
+        return true;
     }
     
     /**
@@ -67,40 +151,54 @@ public class UserManager {
             return null;
         }
         
-        for (int i = 0; i < userCount; i++) {
-            if (users[i] instanceof RegularUser) {
-                RegularUser user = (RegularUser) users[i];
-                if (user.getUsername().equals(username)) {
-                    return user;
-                }
-            }
-        }
-        return null;
+        return usersByUsername.get(username);
     }
     
     /**
-     * VALUE RETURNING METHOD: Authenticates a regular user.
-     * Uses password hashing for secure authentication.
+     * VALUE RETURNING METHOD: Authenticates a regular user at the local console.
      * 
      * @param username Username to authenticate
      * @param password Password to verify
      * @return RegularUser if authentication successful, null otherwise
      */
     public static RegularUser authenticateRegularUser(String username, String password) {
+        return authenticateRegularUser(username, password, LoginRateLimiter.CONSOLE_SOURCE);
+    }
+    
+    /**
+     * VALUE RETURNING METHOD: Authenticates a regular user.
+     * Attempts are throttled per username and per source before any hashing work.
+     * Uses password hashing for secure authentication. Verification runs on the
+     * bounded PasswordVerifier, and a password stored with an old scheme or cost is
+     * rehashed with the configured cost once it has been verified.
+     * 
+     * @param username Username to authenticate
+     * @param password Password to verify
+     * @param source Where the attempt comes from (e.g. a client address)
+     * @return RegularUser if authentication successful, null otherwise
+     */
+    public static RegularUser authenticateRegularUser(String username, String password, String source) {
         if (username == null || password == null) {
             return null;
         }
         
-        for (int i = 0; i < userCount; i++) {
-            if (users[i] instanceof RegularUser) {
-                RegularUser user = (RegularUser) users[i];
-                if (user.getUsername().equals(username)) {
-                    // Use password verification with hashing
-                    if (PasswordUtil.verifyPassword(password, user.getPassword())) {
-                        return user;
-                    }
+        if (!LoginRateLimiter.tryAcquire(username, source)) {
+            System.out.println("Too many login attempts. Please wait a moment and try again.");
+            return null;
+        }
+        
+        RegularUser user = usersByUsername.get(username);
+        // Use password verification with hashing
+        if (user != null && PasswordVerifier.verify(password, user.getPassword())) {
+            // Transparent upgrade, saved right away; if the hashing workers are busy it waits for the next login
+            if (PasswordUtil.needsRehash(user.getPassword())) {
+                String upgraded = PasswordVerifier.hash(password);
+                if (upgraded != null) {
+                    user.setPassword(upgraded);
+                    DataStorage.saveAllData();
                 }
             }
+            return user;
         }
         return null;
     }
@@ -117,75 +215,303 @@ public class UserManager {
     
     /**
      * VALUE RETURNING METHOD: Removes a regular user by username.
+     * Constant time: the user's slot is tombstoned and reclaimed later.
+     * The user's sessions end, so an open dashboard stops at its next command.
      * 
      * @param username Username of user to remove
      * @return true if removed successfully, false if not found
      */
     public static boolean removeRegularUser(String username) {
-        if (username == null) {
+        RegularUser removed = detachRegularUser(username);
+        if (removed == null) {
             return false;
         }
+        SessionManager.invalidateUserSessions(removed);
+        return true;
+    }
+    
+    /**
+     * VALUE RETURNING METHOD: Takes a user out of the registry and every index.
+     * Sessions are left to the caller.
+     * 
+     * @param username Username of user to remove
+     * @return Removed user, or null if not found
+     */
+    private static RegularUser detachRegularUser(String username) {
+        if (username == null) {
+            return null;
+        }
         
-        int userIndex = -1;
-        for (int i = 0; i < userCount; i++) {
-            if (users[i] instanceof RegularUser) {
-                RegularUser user = (RegularUser) users[i];
-                if (user.getUsername().equals(username)) {
-                    userIndex = i;
-                    break;
-                }
+        RegularUser removed = usersByUsername.remove(username);
+        if (removed == null) {
+            return null;
+        }
+        
+        registeredUsers.remove(removed);
+        unindexSearchKeys(removed);
+        Account[] accounts = removed.getAccounts();
+        if (accounts != null) {
+            for (Account account : accounts) {
+                unindexAccount(removed, account);
             }
         }
         
-        if (userIndex == -1) {
+        users.remove(removed);
+        return removed;
+    }
+    
+    /**
+     * VALUE RETURNING METHOD: Removes many regular users in one pass.
+     * Each removal is constant time; the freed slots are reclaimed together afterwards.
+     * 
+     * @param usernames Usernames of users to remove
+     * @return Number of users removed (unknown usernames are ignored)
+     */
+    public static int removeRegularUsers(Iterable<String> usernames) {
+        Set<User> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        // LOOPS: tombstone every user, compaction and session cleanup happen once at the end
+        for (String username : usernames) {
+            RegularUser user = detachRegularUser(username);
+            if (user != null) {
+                removed.add(user);
+            }
+        }
+        SessionManager.invalidateUserSessions(removed);
+        compactUsers();
+        return removed.size();
+    }
+    
+    /**
+     * VOID METHOD: Reclaims the slots of removed users.
+     * Also happens automatically once removed users make up half of the positions.
+     */
+    public static void compactUsers() {
+        users.compact();
+    }
+    
+    /**
+     * VALUE RETURNING METHOD: Renames a regular user and updates the username index.
+     * All username changes must go through here so lookups stay consistent.
+     * 
+     * @param user User to rename
+     * @param newUsername New username
+     * @return true if renamed, false if the new username is already taken
+     */
+    public static boolean renameRegularUser(RegularUser user, String newUsername) {
+        if (user == null || newUsername == null) {
             return false;
         }
         
-        // Shift array elements
-        for (int i = userIndex; i < userCount - 1; i++) {
-            users[i] = users[i + 1];
+        RegularUser existing = usersByUsername.putIfAbsent(newUsername, user);
+        if (existing != null && existing != user) {
+            return false;
         }
-        users[userCount - 1] = null;
-        userCount--;
         
+        // SELECTION: renaming to the current name leaves the index untouched
+        if (!newUsername.equals(user.getUsername())) {
+            usersByUsername.remove(user.getUsername(), user);
+        }
+        unindexSearchKeys(user);
+        user.setUsername(newUsername);
+        indexSearchKeys(user);
         return true;
     }
     
     /**
-     * VALUE RETURNING METHOD: Finds a user by account number.
-     * Searches through all users' accounts.
+     * VOID METHOD: Changes a regular user's email and updates the email index.
+     * All email changes must go through here so email searches stay consistent.
      * 
-     * @param accountNumber Account number to search for
-     * @param excludeUser User to exclude from search (e.g., current user)
-     * @return RegularUser owning the account, or null if not found
+     * @param user User to update
+     * @param newEmail New email address
      */
-    public static RegularUser findUserByAccountNumber(String accountNumber, RegularUser excludeUser) {
-        if (accountNumber == null || accountNumber.isEmpty()) {
+    public static void changeEmail(RegularUser user, String newEmail) {
+        if (user == null || newEmail == null) {
+            return;
+        }
+        
+        unindexSearchKeys(user);
+        user.setEmail(newEmail);
+        indexSearchKeys(user);
+    }
+    
+    /**
+     * VALUE RETURNING METHOD: Finds a regular user by user ID.
+     * 
+     * @param userId User ID to look up
+     * @return RegularUser if found, null otherwise
+     */
+    public static RegularUser getRegularUserByUserId(String userId) {
+        if (userId == null) {
             return null;
         }
         
-        for (int i = 0; i < userCount; i++) {
-            if (users[i] instanceof RegularUser) {
-                RegularUser user = (RegularUser) users[i];
-                if (user != excludeUser) {
-                Account[] accounts = user.getAccounts();
-                if (accounts != null) {
-                    for (Account account : accounts) {
-                        if (account != null && account.getAccountNumber().equals(accountNumber)) {
-                            return user;
-                        }
-                    }
-                }
-                }
+        return usersByUserId.get(userId);
+    }
+    
+    /**
+     * VALUE RETURNING METHOD: Finds a regular user by exact email address (case-insensitive).
+     * 
+     * @param email Email address to look up
+     * @return First matching RegularUser, or null if none
+     */
+    public static RegularUser getRegularUserByEmail(String email) {
+        if (email == null || email.indexOf('@') <= 0) {
+            return null;
+        }
+        
+        List<RegularUser> found = searchIndex(emailsByDomain, emailKeyPrefix(email), null, 1).getUsers();
+        return found.isEmpty() ? null : found.get(0);
+    }
+    
+    /**
+     * VALUE RETURNING METHOD: Finds users whose username starts with a prefix (case-insensitive).
+     * 
+     * @param prefix Username prefix, e.g. "joh"
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @param pageSize Maximum number of users to return
+     * @return One page of matching users in username order
+     */
+    public static UserSearchPage findUsersByUsernamePrefix(String prefix, String cursor, int pageSize) {
+        return searchIndex(usernamesSorted, prefix.toLowerCase(Locale.ROOT), cursor, pageSize);
+    }
+    
+    /**
+     * VALUE RETURNING METHOD: Finds users by email domain (case-insensitive).
+     * 
+     * @param domain Exact domain ("example.com"), or a domain prefix ending in '*' ("exam*")
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @param pageSize Maximum number of users to return
+     * @return One page of matching users, ordered by email
+     */
+    public static UserSearchPage findUsersByEmailDomain(String domain, String cursor, int pageSize) {
+        String normalized = domain.toLowerCase(Locale.ROOT);
+        // SELECTION: a trailing '*' searches a domain prefix, otherwise the whole domain must match
+        String keyPrefix = normalized.endsWith("*") ? normalized.substring(0, normalized.length() - 1)
+                                                    : normalized + "@";
+        return searchIndex(emailsByDomain, keyPrefix, cursor, pageSize);
+    }
+    
+    /**
+     * VALUE RETURNING METHOD: Walks a sorted index from a key prefix or cursor.
+     * Costs one O(log n) seek plus the size of the page.
+     */
+    private static UserSearchPage searchIndex(ConcurrentSkipListMap<String, RegularUser> index, String keyPrefix,
+                                              String cursor, int pageSize) {
+        NavigableMap<String, RegularUser> range = cursor == null || !cursor.startsWith(keyPrefix)
+                ? index.tailMap(keyPrefix, true)
+                : index.tailMap(cursor, false);
+        
+        List<RegularUser> found = new ArrayList<>();
+        String lastKey = null;
+        // LOOPS: collect matches until the prefix ends or the page is full
+        for (Map.Entry<String, RegularUser> entry : range.entrySet()) {
+            if (!entry.getKey().startsWith(keyPrefix)) {
+                break;
+            }
+            if (found.size() == pageSize) {
+                return new UserSearchPage(found, lastKey);
             }
+            found.add(entry.getValue());
+            lastKey = entry.getKey();
+        }
+        return new UserSearchPage(found, null);
+    }
+    
+    private static void indexSearchKeys(RegularUser user) {
+        usersByUserId.putIfAbsent(user.getUserId(), user);
+        usernamesSorted.put(usernameKey(user), user);
+        String emailKey = emailKey(user);
+        if (emailKey != null) {
+            emailsByDomain.put(emailKey, user);
+        }
+    }
+    
+    private static void unindexSearchKeys(RegularUser user) {
+        usersByUserId.remove(user.getUserId(), user);
+        usernamesSorted.remove(usernameKey(user), user);
+        String emailKey = emailKey(user);
+        if (emailKey != null) {
+            emailsByDomain.remove(emailKey, user);
+        }
+    }
+    
+    private static String usernameKey(User user) {
+        return user.getUsername().toLowerCase(Locale.ROOT) + '\0' + user.getUsername();
+    }
+    
+    private static String emailKey(User user) {
+        String email = user.getEmail();
+        if (email == null || email.indexOf('@') <= 0) {
+            return null;
+        }
+        return emailKeyPrefix(email) + user.getUsername();
+    }
+    
+    // "local@domain" -> "domain@local\0"
+    private static String emailKeyPrefix(String email) {
+        String normalized = email.trim().toLowerCase(Locale.ROOT);
+        int at = normalized.lastIndexOf('@');
+        return normalized.substring(at + 1) + '@' + normalized.substring(0, at) + '\0';
+    }
+    
+    /**
+     * VOID METHOD: Adds an account of a registered user to the account-number index.
+     * Called by User.addAccount; accounts of users that are not registered yet are
+     * indexed when the user is added. The account also starts counting in SystemAggregates.
+     */
+    static void indexAccount(RegularUser owner, Account account) {
+        if (account != null && registeredUsers.contains(owner)) {
+            // The first account registered under a number keeps it, as with the old linear search
+            accountsByNumber.putIfAbsent(account.getAccountNumber(), new AccountEntry(owner, account));
+            SystemAggregates.accountAdded(owner, account);
+        }
+    }
+    
+    /**
+     * VOID METHOD: Removes an account from the account-number index.
+     * Called by User.removeAccount and when a user is removed; the account
+     * stops counting in SystemAggregates.
+     */
+    static void unindexAccount(RegularUser owner, Account account) {
+        if (account == null) {
+            return;
+        }
+        SystemAggregates.accountRemoved(owner, account);
+        AccountEntry entry = accountsByNumber.get(account.getAccountNumber());
+        if (entry != null && entry.account == account) {
+            accountsByNumber.remove(account.getAccountNumber());
+        }
+    }
+    
+    /**
+     * VALUE RETURNING METHOD: Finds the owner of an account.
+     * 
+     * @param accountNumber Account number to look up
+     * @return RegularUser owning the account, or null if not found
+     */
+    public static RegularUser findAccountOwner(String accountNumber) {
+        if (accountNumber == null || accountNumber.isEmpty()) {
+            return null;
         }
         
-        return null;
+        AccountEntry entry = accountsByNumber.get(accountNumber);
+        return entry == null ? null : entry.owner;
+    }
+    
+    /**
+     * VALUE RETURNING METHOD: Finds a user by account number.
+     * 
+     * @param accountNumber Account number to search for
+     * @param excludeUser User to exclude from search (e.g., current user)
+     * @return RegularUser owning the account, or null if not found
+     */
+    public static RegularUser findUserByAccountNumber(String accountNumber, RegularUser excludeUser) {
+        RegularUser owner = findAccountOwner(accountNumber);
+        return owner == excludeUser ? null : owner;
     }
     
     /**
      * VALUE RETURNING METHOD: Finds an account by account number.
-     * Searches through all users' accounts.
      * 
      * @param accountNumber Account number to search for
      * @return Account if found, null otherwise
@@ -195,21 +521,8 @@ public class UserManager {
             return null;
         }
         
-        for (int i = 0; i < userCount; i++) {
-            if (users[i] instanceof RegularUser) {
-                RegularUser user = (RegularUser) users[i];
-                Account[] accounts = user.getAccounts();
-                if (accounts != null) {
-                    for (Account account : accounts) {
-                        if (account != null && account.getAccountNumber().equals(accountNumber)) {
-                            return account;
-                        }
-                    }
-                }
-            }
-        }
-        
-        return null;
+        AccountEntry entry = accountsByNumber.get(accountNumber);
+        return entry == null ? null : entry.account;
     }
     
     /**
@@ -218,13 +531,13 @@ public class UserManager {
      * @return Array of RegularUser objects (may contain nulls)
      */
     public static RegularUser[] getAllRegularUsers() {
-        RegularUser[] regularUsers = new RegularUser[userCount];
+        User[] snapshot = users.toArray();
+        RegularUser[] regularUsers = new RegularUser[snapshot.length];
         int count = 0;
         
-        for (int i = 0; i < userCount; i++) {
-            if (users[i] instanceof RegularUser) {
-                RegularUser regularUser = (RegularUser) users[i];
-                regularUsers[count++] = regularUser;
+        for (User u : snapshot) {
+            if (u instanceof RegularUser) {
+                regularUsers[count++] = (RegularUser) u;
             }
         }
         
@@ -232,22 +545,24 @@ public class UserManager {
     }
     
     /**
-     * VOID METHOD: Displays all users in the system.
-     * Used by administrators.
+     * VALUE RETURNING METHOD: Displays a range of users in registration order.
+     * Used by administrators to page through the user list.
+     * 
+     * @param fromIndex Index of the first user to show
+     * @param count Maximum number of users to show
+     * @return Index of the first user not shown
      */
-    public static void displayAllUsers() {
-        System.out.println("\n========== All Users ==========");
-        if (userCount == 0) {
-            System.out.println("No users registered.");
-        } else {
-            for (int i = 0; i < userCount; i++) {
-                User u = users[i];
-                if (u != null) {
-                    System.out.println((i + 1) + ". " + u.getUsername() + " (ID: " + u.getUserId() + ")");
-                }
+    public static int displayUsers(int fromIndex, int count) {
+        int userCount = users.size();
+        int end = Math.min(userCount, fromIndex + count);
+        // LOOPS: print one line per user in the range
+        for (int i = fromIndex; i < end; i++) {
+            User u = users.get(i);
+            if (u != null) {
+                System.out.println((i + 1) + ". " + u.getUsername() + " (ID: " + u.getUserId() + ")");
             }
         }
-        System.out.println("==============================");
+        return end;
     }
     
     // Private constructor to prevent instantiation
@@ -0,0 +1,144 @@
+package pennywise;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * UserRegistry class keeps every registered user in registration order.
+ * Demonstrates ARRAYS and ENCAPSULATION.
+ *
+ * The backing array doubles when it is full, so there is no fixed user limit.
+ * Removing a user only clears its slot (a tombstone) in constant time; slots are
+ * reclaimed by compact(), which runs once tombstones make up half of the slots, after
+ * bulk removals and before a save. Appends, removals and compaction are synchronized.
+ * Reads never take a lock and never compact: compaction copies the live users into a
+ * fresh array and publishes it (array first, then size) through the volatile fields, so
+ * a reader sees either the old or the new array, never one being rearranged. A read may
+ * land on a tombstone and get null.
+ * UserManager owns the hash indexes that sit on top of this list.
+ */
+class UserRegistry {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // ARRAYS: Insertion-ordered users, grown by doubling (null slots are tombstones)
+    private volatile User[] users = new User[INITIAL_CAPACITY];
+    private volatile int size;        // slots in use, tombstones included
+    private volatile int tombstones;
+
+    // Slot of every live user, so removal does not have to search
+    private final Map<User, Integer> slots = new ConcurrentHashMap<>();
+
+    /**
+     * VOID METHOD: Appends a user at the end of the registration order.
+     *
+     * @param user User to append
+     */
+    synchronized void append(User user) {
+        User[] current = users;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[size] = user;
+        slots.put(user, size);
+        users = current;
+        // Publishing the size last makes the new slot visible to unsynchronized readers
+        size = size + 1;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Removes a user by leaving a tombstone in its slot.
+     *
+     * @param user User to remove
+     * @return true if the user was registered and has been removed
+     */
+    synchronized boolean remove(User user) {
+        Integer slot = slots.remove(user);
+        if (slot == null) {
+            return false;
+        }
+        users[slot] = null;
+        tombstones = tombstones + 1;
+        // SELECTION: reclaim slots on the write path once half of them are tombstones
+        if (tombstones * 2 >= size) {
+            compact();
+        }
+        return true;
+    }
+
+    /**
+     * VOID METHOD: Reclaims tombstoned slots, keeping the registration order.
+     * One pass into a fresh array, however many users were removed since the last run;
+     * the array readers may still hold is never modified.
+     */
+    synchronized void compact() {
+        if (tombstones == 0) {
+            return;
+        }
+        User[] current = users;
+        User[] compacted = new User[Math.max(INITIAL_CAPACITY, current.length)];
+        int live = 0;
+        // LOOPS: copy the live users in order, skipping the tombstones
+        for (int i = 0; i < size; i++) {
+            User user = current[i];
+            if (user != null) {
+                compacted[live] = user;
+                slots.put(user, live);
+                live++;
+            }
+        }
+        // Publish the array before the smaller size, as append does
+        users = compacted;
+        size = live;
+        tombstones = 0;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Gets the user at a position in registration order.
+     *
+     * @param index Position of the user
+     * @return User, or null if the index is out of range or the user was removed
+     */
+    User get(int index) {
+        // Size first: a reader that sees a new size also sees the array published before it
+        int count = size;
+        User[] current = users;
+        if (index >= 0 && index < count && index < current.length) {
+            return current[index];
+        }
+        return null;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Copies the users in registration order from one consistent snapshot.
+     *
+     * @return Users up to the current size (removed users are null)
+     */
+    User[] toArray() {
+        int count = size;
+        User[] current = users;
+        return Arrays.copyOf(current, Math.min(count, current.length));
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Number of positions in use, removed users not yet reclaimed included.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Number of registered (not removed) users.
+     */
+    synchronized int liveCount() {
+        return size - tombstones;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Number of removed users whose slots are not reclaimed yet.
+     */
+    int getTombstoneCount() {
+        return tombstones;
+    }
+}
@@ -0,0 +1,190 @@
+package pennywise.batch;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import pennywise.InputValidator;
+import pennywise.config.SystemConfiguration;
+import pennywise.data.BatchRunLog;
+
+/**
+ * BatchScheduler class runs the monthly interest and overdraft fee batches exactly once per month.
+ *
+ * Every run has an idempotency key made of the job and the month it covers
+ * (e.g. "INTEREST:2026-10"), recorded in the batch run log that is stored with the data.
+ * The postings themselves carry the month in their transaction type, so a rerun of a key
+ * skips every account that was already processed and only finishes the rest. Manual runs
+ * from the SuperAdmin menu go through the same path.
+ *
+ * The schedule is checked at safe points of the console flow (after loading data and
+ * whenever the main menu is shown), so a batch never runs while a user session is
+ * changing accounts. When the configured day of the month has been reached and the
+ * month's runs have not completed, they run then; interrupted runs are resumed first.
+ * A run covers the month it happens in and uses the balances of the day it runs on,
+ * not the balances at the end of the month. A run that fails to save (or to record its
+ * completion) is not retried automatically again in the same process: one warning is
+ * shown, and it is retried at the next start or by a manual run.
+ */
+public class BatchScheduler {
+
+    /**
+     * Jobs the scheduler knows how to run.
+     */
+    public enum Job { INTEREST, OVERDRAFT_FEES }
+
+    // Keys whose last run in this process did not complete; the schedule skips them
+    private static final Set<String> failedKeys = Collections.synchronizedSet(new HashSet<>());
+
+    /**
+     * VALUE RETURNING METHOD: Builds the idempotency key of a job for a month.
+     *
+     * @param job Job to run
+     * @param period Month the run covers
+     * @return Key in the form JOB:yyyy-MM
+     */
+    public static String idempotencyKey(Job job, YearMonth period) {
+        return job + ":" + period;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Runs (or finishes) the interest batch for a month.
+     *
+     * @param period Month the interest is for
+     * @return Result of the run
+     */
+    public static InterestPostingEngine.PostingResult runInterest(YearMonth period) {
+        String key = idempotencyKey(Job.INTEREST, period);
+        recordStarted(key);
+        InterestPostingEngine.PostingResult result = InterestPostingEngine.postMonthlyInterest(period);
+        finish(key, result.isSaved(), "posted=" + result.getPosted() + " alreadyPosted=" + result.getAlreadyPosted() +
+                                      " failed=" + result.getFailed());
+        return result;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Runs (or finishes) the overdraft fee batch for a month.
+     *
+     * @param period Month the fees are for
+     * @return Result table of the run
+     */
+    public static OverdraftFeeEngine.FeeResultTable runOverdraftFees(YearMonth period) {
+        String key = idempotencyKey(Job.OVERDRAFT_FEES, period);
+        recordStarted(key);
+        OverdraftFeeEngine.FeeResultTable result = OverdraftFeeEngine.chargeOverdraftFees(period);
+        finish(key, result.isSaved(), "applied=" + result.getApplied() + " alreadyCharged=" + result.getAlreadyCharged() +
+                                      " failed=" + result.getFailed());
+        return result;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Checks whether a job has completed for a month.
+     */
+    public static boolean isCompleted(Job job, YearMonth period) {
+        return BatchRunLog.isCompleted(idempotencyKey(job, period));
+    }
+
+    /**
+     * VOID METHOD: Resumes interrupted runs and starts the runs that are due.
+     * Cheap when nothing is due: the run log is kept in memory.
+     *
+     * @param today Current date
+     */
+    public static void runDueJobs(LocalDate today) {
+        // LOOPS: finish runs a crash or failed save left behind, whatever their month
+        for (String key : BatchRunLog.findUnfinished()) {
+            // SELECTION: a run that already failed in this process waits for a restart or a manual run
+            if (failedKeys.contains(key)) {
+                continue;
+            }
+            int separator = key.indexOf(':');
+            try {
+                Job job = Job.valueOf(key.substring(0, Math.max(0, separator)));
+                YearMonth period = YearMonth.parse(key.substring(separator + 1));
+                System.out.println("Resuming interrupted batch run " + key + "...");
+                runJob(job, period);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                System.out.println("Warning: Ignoring unknown batch run key " + key);
+            }
+        }
+
+        int runDay = SystemConfiguration.getInstance().getBatchRunDay();
+        if (runDay == 0 || today.getDayOfMonth() < runDay) {
+            return;
+        }
+        YearMonth period = YearMonth.from(today);
+        // Interest first, so fees are judged on the run-day balance after this month's interest
+        for (Job job : Job.values()) {
+            if (!isCompleted(job, period) && !failedKeys.contains(idempotencyKey(job, period))) {
+                System.out.println("Running scheduled batch " + idempotencyKey(job, period) + "...");
+                runJob(job, period);
+            }
+        }
+    }
+
+    /**
+     * VOID METHOD: Runs one job for a month and prints a one-line result.
+     */
+    private static void runJob(Job job, YearMonth period) {
+        // SELECTION: dispatch on job type
+        switch (job) {
+            case INTEREST: {
+                InterestPostingEngine.PostingResult result = runInterest(period);
+                System.out.println("  Interest " + period + ": " + result.getPosted() + " posted, " +
+                                   result.getAlreadyPosted() + " already posted, " + result.getFailed() + " failed, $" +
+                                   InputValidator.formatMoney(result.getTotalInterest()) + " total");
+                break;
+            }
+            case OVERDRAFT_FEES: {
+                OverdraftFeeEngine.FeeResultTable result = runOverdraftFees(period);
+                System.out.println("  Overdraft fees " + period + ": " + result.getApplied() + " charged, " +
+                                   result.getAlreadyCharged() + " already charged, " + result.getFailed() + " failed, $" +
+                                   InputValidator.formatMoney(result.getTotalFees()) + " total");
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    private static void recordStarted(String key) {
+        try {
+            BatchRunLog.recordStarted(key);
+        } catch (IOException e) {
+            // Postings are still idempotent per account, only the run record is missing
+            System.out.println("Warning: Could not record start of batch run " + key + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * VOID METHOD: Records a run as completed, or remembers that it failed in this process.
+     *
+     * @param key Idempotency key of the run
+     * @param saved Whether the run's data was saved
+     * @param detail Short result description
+     */
+    private static void finish(String key, boolean saved, String detail) {
+        if (saved) {
+            try {
+                BatchRunLog.recordCompleted(key, detail);
+                failedKeys.remove(key);
+                return;
+            } catch (IOException e) {
+                System.out.println("Warning: Could not record completion of batch run " + key + ": " + e.getMessage());
+            }
+        }
+        // SELECTION: warn once; later safe points skip the key instead of rerunning it
+        if (failedKeys.add(key)) {
+            System.out.println("Warning: Batch run " + key + " did not complete. It will not be retried automatically " +
+                               "until the next start; it can be run manually from the SuperAdmin menu.");
+        }
+    }
+
+    // Private constructor to prevent instantiation
+    private BatchScheduler() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+}
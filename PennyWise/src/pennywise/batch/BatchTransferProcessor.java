@@ -0,0 +1,463 @@
+package pennywise.batch;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import pennywise.Account;
+import pennywise.AppConstants;
+import pennywise.CheckingAccount;
+import pennywise.InputValidator;
+import pennywise.RegularUser;
+import pennywise.UserManager;
+import pennywise.data.BatchSummaryFile;
+import pennywise.data.DataStorage;
+import pennywise.report.ReportFormat;
+import pennywise.report.ReportWriter;
+
+/**
+ * BatchTransferProcessor class executes a file of transfers (e.g. a payroll run) in one batch.
+ *
+ * The file has one transfer per line: from,to,amount,reference (the reference may itself
+ * contain commas; an optional header line and lines starting with # are ignored).
+ * Every row is validated up front against the account-number index and the rules of the
+ * interactive transfers: both accounts exist and differ, the amount is positive with at
+ * most two decimals, and transfers between different owners go from checking to checking.
+ * Each row also takes one transaction history slot on both accounts; rows that would not
+ * fit in an account's free slots are rejected before anything runs, so a batch never
+ * stops halfway on a full history (split large payrolls over several runs).
+ *
+ * The valid rows are then split into waves: a row goes in the wave after the last wave
+ * that used either of its accounts, so no two rows of a wave share an account and every
+ * account sees its rows in file order. Each wave runs in parallel on a ForkJoinPool, which
+ * needs no locks because each account is touched by one row at a time.
+ * Funds are checked when a row runs, so earlier rows can fund later ones.
+ *
+ * Every row gets an outcome in a per-row CSV result file; the run also writes a summary
+ * file and saves all data once. The batch must run from the console flow (as the monthly
+ * batches do), so no user session changes accounts at the same time.
+ */
+public class BatchTransferProcessor {
+
+    // Waves smaller than this run on the calling thread; forking would cost more than it saves
+    private static final int PARALLEL_WAVE_THRESHOLD = 256;
+    private static final int SPLIT_THRESHOLD = 256;
+
+    /**
+     * Outcome of one row of a transfer batch.
+     */
+    public enum Outcome { PENDING, DONE, INVALID, INSUFFICIENT_FUNDS, FAILED }
+
+    /**
+     * Helper class holding the rows of a transfer file and their outcomes.
+     * ARRAYS: row i of every array describes line lineNumbers[i] of the file.
+     */
+    public static final class TransferBatch {
+        private final String path;
+        private final int[] lineNumbers;
+        private final String[] fromNumbers;
+        private final String[] toNumbers;
+        private final double[] amounts;
+        private final String[] references;
+        private final Account[] fromAccounts;
+        private final Account[] toAccounts;
+        private final Outcome[] outcomes;
+        private final String[] messages;
+        private int validRows;
+        private double validAmount;
+
+        // Filled in by execute()
+        private int done;
+        private int insufficientFunds;
+        private int failed;
+        private double transferred;
+        private int waves;
+        private long elapsedNanos;
+        private String resultFile;
+        private String summaryFile;
+        private boolean saved;
+
+        TransferBatch(String path, int rows) {
+            this.path = path;
+            this.lineNumbers = new int[rows];
+            this.fromNumbers = new String[rows];
+            this.toNumbers = new String[rows];
+            this.amounts = new double[rows];
+            this.references = new String[rows];
+            this.fromAccounts = new Account[rows];
+            this.toAccounts = new Account[rows];
+            this.outcomes = new Outcome[rows];
+            this.messages = new String[rows];
+            Arrays.fill(outcomes, Outcome.PENDING);
+        }
+
+        public int size() { return outcomes.length; }
+        public int getValidRows() { return validRows; }
+        public int getInvalidRows() { return outcomes.length - validRows; }
+        public double getValidAmount() { return validAmount; }
+        public Outcome getOutcome(int row) { return outcomes[row]; }
+        public String getMessage(int row) { return messages[row]; }
+        public int getLineNumber(int row) { return lineNumbers[row]; }
+
+        public int getDone() { return done; }
+        public int getInsufficientFunds() { return insufficientFunds; }
+        public int getFailed() { return failed; }
+        public double getTransferred() { return transferred; }
+        public int getWaves() { return waves; }
+        public long getElapsedNanos() { return elapsedNanos; }
+        public String getResultFile() { return resultFile; }
+        public String getSummaryFile() { return summaryFile; }
+        public boolean isSaved() { return saved; }
+
+        private void reject(int row, String message) {
+            outcomes[row] = Outcome.INVALID;
+            messages[row] = message;
+        }
+    }
+
+    /**
+     * Helper class holding one parsed line before the arrays are sized.
+     */
+    private static final class Line {
+        final int number;
+        final String[] fields;
+
+        Line(int number, String[] fields) {
+            this.number = number;
+            this.fields = fields;
+        }
+    }
+
+    /**
+     * Fork/join task running rows order[from, to) of one wave.
+     */
+    private static final class ExecuteRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final TransferBatch batch;
+        private final int[] order;
+        private final int from;
+        private final int to;
+        private final String date;
+
+        ExecuteRange(TransferBatch batch, int[] order, int from, int to, String date) {
+            this.batch = batch;
+            this.order = order;
+            this.from = from;
+            this.to = to;
+            this.date = date;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                // LOOPS: run this slice of the wave on the current worker
+                for (int i = from; i < to; i++) {
+                    executeRow(batch, order[i], date);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ExecuteRange(batch, order, from, middle, date),
+                      new ExecuteRange(batch, order, middle, to, date));
+        }
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Reads and validates a transfer file without changing any account.
+     *
+     * @param path Path of the transfer file
+     * @return Batch with every invalid row already marked INVALID
+     * @throws IOException if the file cannot be read
+     */
+    public static TransferBatch load(String path) throws IOException {
+        List<Line> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
+            String text;
+            int number = 0;
+            // LOOPS: one row per non-blank, non-comment line
+            while ((text = reader.readLine()) != null) {
+                number++;
+                String trimmed = text.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                // SELECTION: an optional header line before the first row
+                if (lines.isEmpty() && trimmed.toLowerCase().startsWith("from,")) {
+                    continue;
+                }
+                lines.add(new Line(number, trimmed.split(",", 4)));
+            }
+        }
+
+        TransferBatch batch = new TransferBatch(path, lines.size());
+        for (int row = 0; row < lines.size(); row++) {
+            Line line = lines.get(row);
+            batch.lineNumbers[row] = line.number;
+            String[] fields = line.fields;
+            batch.fromNumbers[row] = fields[0].trim();
+            batch.toNumbers[row] = fields.length > 1 ? fields[1].trim() : "";
+            batch.references[row] = fields.length > 3 ? fields[3].trim() : "";
+            if (fields.length < 3) {
+                batch.reject(row, "Expected from,to,amount,reference");
+                continue;
+            }
+            validateRow(batch, row, fields[2].trim());
+        }
+        reserveHistorySlots(batch);
+        return batch;
+    }
+
+    /**
+     * VOID METHOD: Rejects the valid rows that would not fit in the free transaction
+     * history slots of their accounts. Rows are taken in file order, so the earliest
+     * rows of an account keep their slots.
+     */
+    private static void reserveHistorySlots(TransferBatch batch) {
+        Map<Account, Integer> used = new IdentityHashMap<>();
+        // LOOPS: count the slots each valid row takes on both of its accounts
+        for (int row = 0; row < batch.size(); row++) {
+            if (batch.outcomes[row] != Outcome.PENDING) {
+                continue;
+            }
+            Account from = batch.fromAccounts[row];
+            Account to = batch.toAccounts[row];
+            int usedFrom = used.getOrDefault(from, 0);
+            int usedTo = used.getOrDefault(to, 0);
+            // SELECTION: the row needs a free slot on both sides
+            Account full = usedFrom >= from.getFreeTransactionSlots() ? from
+                         : usedTo >= to.getFreeTransactionSlots() ? to : null;
+            if (full != null) {
+                batch.reject(row, "Transaction history of " + full.getAccountNumber() + " is full for this batch ("
+                                  + full.getFreeTransactionSlots() + " free slots); run the rest in a later batch");
+                batch.validRows--;
+                batch.validAmount -= batch.amounts[row];
+                continue;
+            }
+            used.put(from, usedFrom + 1);
+            used.put(to, usedTo + 1);
+        }
+    }
+
+    /**
+     * VOID METHOD: Validates one row and resolves its accounts through the account-number index.
+     */
+    private static void validateRow(TransferBatch batch, int row, String amountText) {
+        double amount;
+        try {
+            amount = Double.parseDouble(amountText);
+        } catch (NumberFormatException e) {
+            batch.reject(row, "Invalid amount: " + amountText);
+            return;
+        }
+        // SELECTION: the checks of the interactive transfer flows, in the same order
+        if (!(amount > 0) || Double.isInfinite(amount)) {
+            batch.reject(row, "Amount must be positive");
+            return;
+        }
+        batch.amounts[row] = amount;
+        if (Math.abs(amount * 100 - Math.rint(amount * 100)) > 1e-6) {
+            batch.reject(row, "Amount has more than two decimals");
+            return;
+        }
+        if (batch.references[row].contains("|")) {
+            batch.reject(row, "Reference may not contain |");
+            return;
+        }
+        Account from = UserManager.findAccountByNumber(batch.fromNumbers[row]);
+        if (from == null) {
+            batch.reject(row, "Source account not found");
+            return;
+        }
+        Account to = UserManager.findAccountByNumber(batch.toNumbers[row]);
+        if (to == null) {
+            batch.reject(row, "Destination account not found");
+            return;
+        }
+        if (from == to) {
+            batch.reject(row, "Cannot transfer to the same account");
+            return;
+        }
+        RegularUser fromOwner = UserManager.findAccountOwner(batch.fromNumbers[row]);
+        RegularUser toOwner = UserManager.findAccountOwner(batch.toNumbers[row]);
+        if (fromOwner != toOwner && !(from instanceof CheckingAccount && to instanceof CheckingAccount)) {
+            batch.reject(row, "Transfers to another user must go from checking to checking");
+            return;
+        }
+        batch.fromAccounts[row] = from;
+        batch.toAccounts[row] = to;
+        batch.validRows++;
+        batch.validAmount += amount;
+    }
+
+    /**
+     * VOID METHOD: Executes the valid rows of a loaded batch, writes the result and summary
+     * files and saves all data once (only if any transfer was made).
+     *
+     * @param batch Batch returned by load()
+     */
+    public static void execute(TransferBatch batch) {
+        String date = new java.text.SimpleDateFormat(AppConstants.DATE_FORMAT).format(new java.util.Date());
+        long start = System.nanoTime();
+
+        // Wave of each valid row: one more than the last wave that used either account
+        int rows = batch.size();
+        int[] waveOf = new int[rows];
+        Map<Account, Integer> lastWave = new IdentityHashMap<>();
+        int waveCount = 0;
+        // LOOPS: file order, so every account sees its rows in that order
+        for (int row = 0; row < rows; row++) {
+            if (batch.outcomes[row] != Outcome.PENDING) {
+                waveOf[row] = -1;
+                continue;
+            }
+            int wave = Math.max(lastWave.getOrDefault(batch.fromAccounts[row], -1),
+                                lastWave.getOrDefault(batch.toAccounts[row], -1)) + 1;
+            waveOf[row] = wave;
+            lastWave.put(batch.fromAccounts[row], wave);
+            lastWave.put(batch.toAccounts[row], wave);
+            waveCount = Math.max(waveCount, wave + 1);
+        }
+
+        // ARRAYS: counting sort of the rows by wave; wave w is order[waveStart[w], waveStart[w + 1])
+        int[] waveStart = new int[waveCount + 1];
+        for (int row = 0; row < rows; row++) {
+            if (waveOf[row] >= 0) {
+                waveStart[waveOf[row] + 1]++;
+            }
+        }
+        for (int w = 0; w < waveCount; w++) {
+            waveStart[w + 1] += waveStart[w];
+        }
+        int[] order = new int[waveStart[waveCount]];
+        int[] next = Arrays.copyOf(waveStart, waveCount);
+        for (int row = 0; row < rows; row++) {
+            if (waveOf[row] >= 0) {
+                order[next[waveOf[row]]++] = row;
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            for (int w = 0; w < waveCount; w++) {
+                int from = waveStart[w];
+                int to = waveStart[w + 1];
+                // SELECTION: small waves (e.g. one payer in every row) run inline
+                if (to - from < PARALLEL_WAVE_THRESHOLD) {
+                    for (int i = from; i < to; i++) {
+                        executeRow(batch, order[i], date);
+                    }
+                } else {
+                    pool.invoke(new ExecuteRange(batch, order, from, to, date));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        batch.waves = waveCount;
+        batch.elapsedNanos = System.nanoTime() - start;
+
+        // LOOPS: tally the outcomes of the rows that ran
+        for (int row = 0; row < rows; row++) {
+            switch (batch.outcomes[row]) {
+                case DONE:
+                    batch.done++;
+                    batch.transferred += batch.amounts[row];
+                    break;
+                case INSUFFICIENT_FUNDS:
+                    batch.insufficientFunds++;
+                    break;
+                case FAILED:
+                    batch.failed++;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        batch.resultFile = writeResults(batch);
+        batch.summaryFile = writeSummary(batch, date);
+
+        // Persist once for the whole batch
+        batch.saved = batch.done == 0 || DataStorage.saveAllData();
+    }
+
+    /**
+     * VOID METHOD: Runs one transfer and records its outcome; never throws.
+     */
+    private static void executeRow(TransferBatch batch, int row, String date) {
+        String reference = batch.references[row].isEmpty() ? "Batch" : "Batch " + batch.references[row];
+        try {
+            boolean moved = batch.fromAccounts[row].postTransfer(batch.amounts[row], batch.toAccounts[row],
+                reference + " to " + batch.toNumbers[row], reference + " from " + batch.fromNumbers[row], date);
+            if (moved) {
+                batch.outcomes[row] = Outcome.DONE;
+            } else {
+                batch.outcomes[row] = Outcome.INSUFFICIENT_FUNDS;
+                batch.messages[row] = "Balance does not cover the amount";
+            }
+        } catch (RuntimeException e) {
+            batch.outcomes[row] = Outcome.FAILED;
+            batch.messages[row] = e.getMessage() != null ? e.getMessage() : e.toString();
+        }
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Streams one CSV row per transfer row with its outcome.
+     *
+     * @return Path of the result file, or null if it could not be written
+     */
+    private static String writeResults(TransferBatch batch) {
+        try (ReportWriter report = ReportWriter.open("batch-transfers-results", ReportFormat.CSV, false,
+                "line", "from", "to", "amount", "reference", "outcome", "message")) {
+            // LOOPS: every row, in file order
+            for (int row = 0; row < batch.size(); row++) {
+                report.number(batch.lineNumbers[row]).text(batch.fromNumbers[row]).text(batch.toNumbers[row])
+                      .money(batch.amounts[row]).text(batch.references[row])
+                      .text(batch.outcomes[row].name()).text(batch.messages[row]).endRow();
+            }
+            return report.getPath();
+        } catch (IOException e) {
+            System.out.println("Warning: Could not write batch transfer results: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Writes the run summary file, pointing to the result file.
+     *
+     * @return Path of the summary file, or null if it could not be written
+     */
+    private static String writeSummary(TransferBatch batch, String date) {
+        List<String> lines = new ArrayList<>();
+        lines.add("Batch transfer run");
+        lines.add("Input file: " + batch.path);
+        lines.add("Posting date: " + date);
+        lines.add("Rows: " + batch.size());
+        lines.add("Invalid: " + batch.getInvalidRows());
+        lines.add("Done: " + batch.done);
+        lines.add("Insufficient funds: " + batch.insufficientFunds);
+        lines.add("Failed: " + batch.failed);
+        lines.add("Total transferred: $" + InputValidator.formatMoney(batch.transferred));
+        lines.add("Waves: " + batch.waves);
+        lines.add("Elapsed: " + String.format("%.3f", batch.elapsedNanos / 1_000_000_000.0) + "s");
+        lines.add("Results: " + (batch.resultFile == null ? "not written" : batch.resultFile));
+        try {
+            return BatchSummaryFile.write("batch-transfers", lines);
+        } catch (IOException e) {
+            System.out.println("Warning: Could not write batch transfer summary: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Private constructor to prevent instantiation
+    private BatchTransferProcessor() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+}
@@ -0,0 +1,378 @@
+package pennywise.batch;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import pennywise.Account;
+import pennywise.AppConstants;
+import pennywise.CheckingAccount;
+import pennywise.RegularUser;
+import pennywise.SavingsAccount;
+import pennywise.UserManager;
+import pennywise.config.SystemConfiguration;
+import pennywise.data.BatchSummaryFile;
+import pennywise.data.DataStorage;
+import pennywise.report.ReportFormat;
+import pennywise.report.ReportWriter;
+
+/**
+ * BulkAccountUpdater class applies one account setting to every matching existing account.
+ *
+ * Used to propagate a changed configuration default (interest rate, withdrawal limit,
+ * overdraft limit or fee) to the accounts that were opened under the old value.
+ * The setting decides the account type; an AccountFilter narrows the accounts further by
+ * balance range and current value. Accounts are updated in parallel on a ForkJoinPool,
+ * each by exactly one task. The run writes one summary file, one CSV journal of every
+ * changed account (old and new value) and saves all data once.
+ */
+public class BulkAccountUpdater {
+
+    /**
+     * Account settings that can be applied in bulk.
+     */
+    public enum Setting {
+        INTEREST_RATE("Savings interest rate"),
+        MAX_WITHDRAWALS("Savings max withdrawals per month"),
+        OVERDRAFT_LIMIT("Checking overdraft limit"),
+        OVERDRAFT_FEE("Checking overdraft fee");
+
+        private final String label;
+
+        Setting(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * VALUE RETURNING METHOD: Checks whether the setting exists on an account.
+         */
+        public boolean appliesTo(Account account) {
+            // SELECTION: savings settings vs checking settings
+            if (this == INTEREST_RATE || this == MAX_WITHDRAWALS) {
+                return account instanceof SavingsAccount;
+            }
+            return account instanceof CheckingAccount;
+        }
+
+        /**
+         * VALUE RETURNING METHOD: Returns the configured default for new accounts.
+         */
+        public double getDefault() {
+            SystemConfiguration config = SystemConfiguration.getInstance();
+            switch (this) {
+                case INTEREST_RATE:
+                    return config.getDefaultSavingsInterestRate();
+                case MAX_WITHDRAWALS:
+                    return config.getDefaultSavingsMaxWithdrawals();
+                case OVERDRAFT_LIMIT:
+                    return config.getDefaultCheckingOverdraftLimit();
+                default:
+                    return config.getDefaultCheckingOverdraftFee();
+            }
+        }
+
+        /**
+         * VALUE RETURNING METHOD: Checks whether a value is allowed for the setting.
+         */
+        public boolean isValid(double value) {
+            if (this == MAX_WITHDRAWALS) {
+                return value > 0 && value == Math.rint(value);
+            }
+            return value >= 0 && !Double.isInfinite(value);
+        }
+
+        private double read(Account account) {
+            switch (this) {
+                case INTEREST_RATE:
+                    return ((SavingsAccount) account).getInterestRate();
+                case MAX_WITHDRAWALS:
+                    return ((SavingsAccount) account).getMaxWithdrawalsPerMonth();
+                case OVERDRAFT_LIMIT:
+                    return ((CheckingAccount) account).getOverdraftLimit();
+                default:
+                    return ((CheckingAccount) account).getOverdraftFee();
+            }
+        }
+
+        private void write(Account account, double value) {
+            switch (this) {
+                case INTEREST_RATE:
+                    ((SavingsAccount) account).setInterestRate(value);
+                    break;
+                case MAX_WITHDRAWALS:
+                    ((SavingsAccount) account).setMaxWithdrawalsPerMonth((int) value);
+                    break;
+                case OVERDRAFT_LIMIT:
+                    ((CheckingAccount) account).setOverdraftLimit(value);
+                    break;
+                default:
+                    ((CheckingAccount) account).setOverdraftFee(value);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Helper class holding the conditions an account must meet to be updated.
+     * NaN means "any" for every condition.
+     */
+    public static final class AccountFilter {
+        private final double minBalance;
+        private final double maxBalance;
+        private final double currentValue;
+
+        /**
+         * Constructor to initialize an AccountFilter.
+         *
+         * @param minBalance Lowest balance to include, or NaN for no lower bound
+         * @param maxBalance Highest balance to include, or NaN for no upper bound
+         * @param currentValue Only accounts whose setting currently has this value, or NaN for any
+         */
+        public AccountFilter(double minBalance, double maxBalance, double currentValue) {
+            this.minBalance = minBalance;
+            this.maxBalance = maxBalance;
+            this.currentValue = currentValue;
+        }
+
+        /**
+         * VALUE RETURNING METHOD: Describes the filter for summaries.
+         */
+        public String describe() {
+            return "balance " + (Double.isNaN(minBalance) ? "any" : String.valueOf(minBalance)) +
+                   " to " + (Double.isNaN(maxBalance) ? "any" : String.valueOf(maxBalance)) +
+                   ", current value " + (Double.isNaN(currentValue) ? "any" : String.valueOf(currentValue));
+        }
+
+        private boolean matches(Setting setting, Account account) {
+            double balance = account.getBalance();
+            // SELECTION: every condition that is set must hold
+            if (!Double.isNaN(minBalance) && balance < minBalance) {
+                return false;
+            }
+            if (!Double.isNaN(maxBalance) && balance > maxBalance) {
+                return false;
+            }
+            return Double.isNaN(currentValue) || sameValue(setting.read(account), currentValue);
+        }
+    }
+
+    /**
+     * Helper class holding the outcome of a bulk update.
+     * ARRAYS: row i describes account i; each row is written by exactly one task.
+     */
+    public static final class UpdateResult {
+        private final Account[] accounts;
+        private final boolean[] matched;
+        private final boolean[] changed;
+        private final double[] oldValues;
+        private int matchedCount;
+        private int changedCount;
+        private long elapsedNanos;
+        private String summaryFile;
+        private String journalFile;
+        private boolean saved;
+
+        UpdateResult(Account[] accounts) {
+            this.accounts = accounts;
+            this.matched = new boolean[accounts.length];
+            this.changed = new boolean[accounts.length];
+            this.oldValues = new double[accounts.length];
+        }
+
+        public int getAccounts() { return accounts.length; }
+        public int getMatched() { return matchedCount; }
+        public int getChanged() { return changedCount; }
+        public long getElapsedNanos() { return elapsedNanos; }
+        public String getSummaryFile() { return summaryFile; }
+        public String getJournalFile() { return journalFile; }
+        public boolean isSaved() { return saved; }
+
+        private void tally() {
+            // LOOPS: single pass over the finished table
+            for (int i = 0; i < accounts.length; i++) {
+                if (matched[i]) matchedCount++;
+                if (changed[i]) changedCount++;
+            }
+        }
+    }
+
+    /**
+     * Fork/join task updating rows [from, to) of the result table.
+     */
+    private static final class UpdateRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final UpdateResult result;
+        private final int from;
+        private final int to;
+        private final Setting setting;
+        private final AccountFilter filter;
+        private final double newValue;
+
+        UpdateRange(UpdateResult result, int from, int to, Setting setting, AccountFilter filter, double newValue) {
+            this.result = result;
+            this.from = from;
+            this.to = to;
+            this.setting = setting;
+            this.filter = filter;
+            this.newValue = newValue;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= AppConstants.BATCH_SPLIT_THRESHOLD) {
+                // LOOPS: update this slice on the current worker
+                for (int i = from; i < to; i++) {
+                    Account account = result.accounts[i];
+                    if (!filter.matches(setting, account)) {
+                        continue;
+                    }
+                    result.matched[i] = true;
+                    result.oldValues[i] = setting.read(account);
+                    if (!sameValue(result.oldValues[i], newValue)) {
+                        setting.write(account, newValue);
+                        result.changed[i] = true;
+                    }
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new UpdateRange(result, from, middle, setting, filter, newValue),
+                      new UpdateRange(result, middle, to, setting, filter, newValue));
+        }
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Gathers every account of every regular user that has the setting.
+     *
+     * @param setting Setting to look for
+     * @return Accounts in user registration order
+     */
+    public static Account[] collectAccounts(Setting setting) {
+        List<Account> accounts = new ArrayList<>();
+        // LOOPS: flatten users and their accounts
+        for (RegularUser user : UserManager.getAllRegularUsers()) {
+            if (user == null) {
+                continue;
+            }
+            for (Account account : user.getAccounts()) {
+                if (account != null && setting.appliesTo(account)) {
+                    accounts.add(account);
+                }
+            }
+        }
+        return accounts.toArray(new Account[0]);
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Counts the accounts a bulk update would touch, without changing them.
+     *
+     * @param setting Setting to apply
+     * @param filter Conditions the accounts must meet
+     * @return Number of matching accounts
+     */
+    public static int countMatches(Setting setting, AccountFilter filter) {
+        int count = 0;
+        for (Account account : collectAccounts(setting)) {
+            if (filter.matches(setting, account)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Applies a value to every matching account, writes the summary
+     * and journal files and saves all data once (only if anything changed).
+     *
+     * @param setting Setting to apply
+     * @param filter Conditions the accounts must meet
+     * @param newValue New value (rates as decimals, e.g. 0.03)
+     * @return Result of the update
+     * @throws IllegalArgumentException if the value is not valid for the setting
+     */
+    public static UpdateResult apply(Setting setting, AccountFilter filter, double newValue) {
+        if (!setting.isValid(newValue)) {
+            throw new IllegalArgumentException("Invalid value for " + setting.getLabel() + ": " + newValue);
+        }
+        UpdateResult result = new UpdateResult(collectAccounts(setting));
+
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            pool.invoke(new UpdateRange(result, 0, result.accounts.length, setting, filter, newValue));
+        } finally {
+            pool.shutdown();
+        }
+        result.elapsedNanos = System.nanoTime() - start;
+        result.tally();
+
+        result.journalFile = writeJournal(result, newValue);
+        result.summaryFile = writeSummary(result, setting, filter, newValue);
+
+        // Persist once for the whole update; nothing to save if no account changed
+        result.saved = result.changedCount == 0 || DataStorage.saveAllData();
+        return result;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Streams one CSV row per changed account with its old and new value.
+     *
+     * @return Path of the journal file, or null if it could not be written
+     */
+    private static String writeJournal(UpdateResult result, double newValue) {
+        try (ReportWriter journal = ReportWriter.open("bulk-update-journal", ReportFormat.CSV, false,
+                                                      "account", "balance", "old_value", "new_value")) {
+            // LOOPS: only changed rows are journaled
+            for (int i = 0; i < result.accounts.length; i++) {
+                if (result.changed[i]) {
+                    journal.text(result.accounts[i].getAccountNumber()).money(result.accounts[i].getBalance())
+                           .decimal(result.oldValues[i]).decimal(newValue).endRow();
+                }
+            }
+            return journal.getPath();
+        } catch (IOException e) {
+            System.out.println("Warning: Could not write bulk update journal: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Writes the run summary file, pointing to the journal.
+     *
+     * @return Path of the summary file, or null if it could not be written
+     */
+    private static String writeSummary(UpdateResult result, Setting setting, AccountFilter filter, double newValue) {
+        List<String> lines = new ArrayList<>();
+        lines.add("Bulk account update");
+        lines.add("Setting: " + setting.getLabel());
+        lines.add("New value: " + newValue);
+        lines.add("Filter: " + filter.describe());
+        lines.add("Accounts with the setting: " + result.accounts.length);
+        lines.add("Matched: " + result.matchedCount);
+        lines.add("Changed: " + result.changedCount);
+        lines.add("Already at value: " + (result.matchedCount - result.changedCount));
+        lines.add("Elapsed: " + String.format("%.3f", result.elapsedNanos / 1_000_000_000.0) + "s");
+        lines.add("Journal: " + (result.journalFile == null ? "not written" : result.journalFile));
+        try {
+            return BatchSummaryFile.write("bulk-update", lines);
+        } catch (IOException e) {
+            System.out.println("Warning: Could not write bulk update summary: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean sameValue(double a, double b) {
+        return Math.abs(a - b) < 1e-9;
+    }
+
+    // Private constructor to prevent instantiation
+    private BulkAccountUpdater() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+}
@@ -0,0 +1,222 @@
+package pennywise.batch;
+
+import java.io.IOException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import pennywise.Account;
+import pennywise.AppConstants;
+import pennywise.InputValidator;
+import pennywise.RegularUser;
+import pennywise.SavingsAccount;
+import pennywise.UserManager;
+import pennywise.data.BatchSummaryFile;
+import pennywise.data.DataStorage;
+
+/**
+ * InterestPostingEngine class posts monthly interest to every savings account in one batch.
+ *
+ * The savings accounts are gathered into one array and split in halves on a ForkJoinPool
+ * until a task holds at most BATCH_SPLIT_THRESHOLD accounts. Every task sums its own
+ * totals and the totals are merged on the way back up, so workers never share a counter.
+ * Nothing is printed per account: the run ends with one summary (on screen and in a
+ * summary file) and a single save.
+ *
+ * An account whose history is full fails on its own; the rest of the batch carries on.
+ * Every posting records its month in the transaction type, so accounts that already
+ * received interest for the period are skipped: rerunning a period only finishes the
+ * accounts an interrupted run did not reach.
+ */
+public class InterestPostingEngine {
+
+    /**
+     * Helper class holding the outcome of an interest run.
+     */
+    public static final class PostingResult {
+        private final int accounts;
+        private final int posted;
+        private final int alreadyPosted;
+        private final int failed;
+        private final double totalInterest;
+        private final long elapsedNanos;
+        private final List<String> failedAccounts;
+        private final String summaryFile;
+        private final boolean saved;
+
+        PostingResult(int accounts, Totals totals, long elapsedNanos, String summaryFile, boolean saved) {
+            this.accounts = accounts;
+            this.posted = totals.posted;
+            this.alreadyPosted = totals.alreadyPosted;
+            this.failed = totals.failedAccounts.size();
+            this.totalInterest = totals.interest;
+            this.elapsedNanos = elapsedNanos;
+            this.failedAccounts = totals.failedAccounts;
+            this.summaryFile = summaryFile;
+            this.saved = saved;
+        }
+
+        public int getAccounts() { return accounts; }
+        public int getPosted() { return posted; }
+        public int getAlreadyPosted() { return alreadyPosted; }
+        public int getSkipped() { return accounts - posted - alreadyPosted - failed; }
+        public int getFailed() { return failed; }
+        public double getTotalInterest() { return totalInterest; }
+        public long getElapsedNanos() { return elapsedNanos; }
+        public List<String> getFailedAccounts() { return failedAccounts; }
+        public String getSummaryFile() { return summaryFile; }
+        public boolean isSaved() { return saved; }
+    }
+
+    /**
+     * Helper class accumulating the totals of one task.
+     */
+    private static final class Totals {
+        int posted;
+        int alreadyPosted;
+        double interest;
+        List<String> failedAccounts = new ArrayList<>();
+
+        Totals merge(Totals other) {
+            posted += other.posted;
+            alreadyPosted += other.alreadyPosted;
+            interest += other.interest;
+            failedAccounts.addAll(other.failedAccounts);
+            return this;
+        }
+    }
+
+    /**
+     * Fork/join task posting interest to accounts[from, to).
+     */
+    private static final class PostRange extends RecursiveTask<Totals> {
+        private static final long serialVersionUID = 1L;
+
+        private final SavingsAccount[] accounts;
+        private final int from;
+        private final int to;
+        private final String date;
+        private final YearMonth period;
+
+        PostRange(SavingsAccount[] accounts, int from, int to, String date, YearMonth period) {
+            this.accounts = accounts;
+            this.from = from;
+            this.to = to;
+            this.date = date;
+            this.period = period;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from <= AppConstants.BATCH_SPLIT_THRESHOLD) {
+                Totals totals = new Totals();
+                // LOOPS: post this slice on the current worker
+                for (int i = from; i < to; i++) {
+                    try {
+                        if (accounts[i].hasInterestPostedFor(period)) {
+                            totals.alreadyPosted++;
+                            continue;
+                        }
+                        double interest = accounts[i].postMonthlyInterest(date, period);
+                        if (interest > 0) {
+                            totals.posted++;
+                            totals.interest += interest;
+                        }
+                    } catch (RuntimeException e) {
+                        totals.failedAccounts.add(accounts[i].getAccountNumber() + ": " + e.getMessage());
+                    }
+                }
+                return totals;
+            }
+            int middle = (from + to) >>> 1;
+            PostRange left = new PostRange(accounts, from, middle, date, period);
+            left.fork();
+            Totals right = new PostRange(accounts, middle, to, date, period).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Gathers every savings account of every regular user.
+     *
+     * @return Savings accounts in user registration order
+     */
+    public static SavingsAccount[] collectSavingsAccounts() {
+        List<SavingsAccount> savings = new ArrayList<>();
+        // LOOPS: flatten users and their accounts
+        for (RegularUser user : UserManager.getAllRegularUsers()) {
+            if (user == null) {
+                continue;
+            }
+            for (Account account : user.getAccounts()) {
+                if (account instanceof SavingsAccount) {
+                    savings.add((SavingsAccount) account);
+                }
+            }
+        }
+        return savings.toArray(new SavingsAccount[0]);
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Posts one month of interest to every savings account,
+     * writes the summary file and saves all data once.
+     *
+     * @param period Month the interest is for
+     * @return Result of the run
+     */
+    public static PostingResult postMonthlyInterest(YearMonth period) {
+        SavingsAccount[] accounts = collectSavingsAccounts();
+        String date = new java.text.SimpleDateFormat(AppConstants.DATE_FORMAT).format(new java.util.Date());
+
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        Totals totals;
+        try {
+            totals = pool.invoke(new PostRange(accounts, 0, accounts.length, date, period));
+        } finally {
+            pool.shutdown();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        String summaryFile = writeSummary(accounts.length, totals, elapsed, date, period);
+
+        // Persist once for the whole batch
+        boolean saved = DataStorage.saveAllData();
+        return new PostingResult(accounts.length, totals, elapsed, summaryFile, saved);
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Writes the run summary file.
+     *
+     * @return Path of the summary file, or null if it could not be written
+     */
+    private static String writeSummary(int accountCount, Totals totals, long elapsedNanos, String date, YearMonth period) {
+        List<String> lines = new ArrayList<>();
+        lines.add("Monthly interest posting");
+        lines.add("Period: " + period);
+        lines.add("Posting date: " + date);
+        lines.add("Savings accounts: " + accountCount);
+        lines.add("Interest posted: " + totals.posted);
+        lines.add("Already posted for period: " + totals.alreadyPosted);
+        lines.add("Skipped (no interest due): " +
+                  (accountCount - totals.posted - totals.alreadyPosted - totals.failedAccounts.size()));
+        lines.add("Failed: " + totals.failedAccounts.size());
+        lines.add("Total interest: $" + InputValidator.formatMoney(totals.interest));
+        lines.add("Elapsed: " + String.format("%.3f", elapsedNanos / 1_000_000_000.0) + "s");
+        for (String failure : totals.failedAccounts) {
+            lines.add("FAILED " + failure);
+        }
+        try {
+            return BatchSummaryFile.write("interest", lines);
+        } catch (IOException e) {
+            System.out.println("Warning: Could not write interest summary: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Private constructor to prevent instantiation
+    private InterestPostingEngine() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+}
@@ -0,0 +1,262 @@
+package pennywise.batch;
+
+import java.io.IOException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import pennywise.Account;
+import pennywise.AppConstants;
+import pennywise.CheckingAccount;
+import pennywise.InputValidator;
+import pennywise.RegularUser;
+import pennywise.UserManager;
+import pennywise.data.BatchSummaryFile;
+import pennywise.data.DataStorage;
+import pennywise.report.ReportFormat;
+import pennywise.report.ReportWriter;
+
+/**
+ * OverdraftFeeEngine class charges overdraft fees to every checking account in one batch.
+ *
+ * Every checking account is evaluated in parallel on a ForkJoinPool and gets one row in
+ * a FeeResultTable: APPLIED, ALREADY_CHARGED (fee for the period already in the history),
+ * SKIPPED (not overdrawn) or FAILED with the error message.
+ * Each account is handled inside its own try/catch, so one bad account (for example a
+ * full transaction history) is recorded as FAILED and never stops the batch.
+ * The run ends with one summary file, a CSV file listing every charged or failed account
+ * and a single save.
+ */
+public class OverdraftFeeEngine {
+
+    /**
+     * Outcome of one account in a fee run.
+     */
+    public enum Outcome { APPLIED, ALREADY_CHARGED, SKIPPED, FAILED }
+
+    /**
+     * Helper class holding the per-account outcomes of a fee run.
+     * ARRAYS: row i describes account i; each row is written by exactly one task.
+     */
+    public static final class FeeResultTable {
+        private final CheckingAccount[] accounts;
+        private final Outcome[] outcomes;
+        private final double[] fees;
+        private final String[] messages;
+        private int applied;
+        private int alreadyCharged;
+        private int skipped;
+        private int failed;
+        private double totalFees;
+        private long elapsedNanos;
+        private String summaryFile;
+        private String detailsFile;
+        private boolean saved;
+
+        FeeResultTable(CheckingAccount[] accounts) {
+            this.accounts = accounts;
+            this.outcomes = new Outcome[accounts.length];
+            this.fees = new double[accounts.length];
+            this.messages = new String[accounts.length];
+        }
+
+        public int size() { return accounts.length; }
+        public String getAccountNumber(int row) { return accounts[row].getAccountNumber(); }
+        public Outcome getOutcome(int row) { return outcomes[row]; }
+        public double getFee(int row) { return fees[row]; }
+        public String getMessage(int row) { return messages[row]; }
+
+        public int getApplied() { return applied; }
+        public int getAlreadyCharged() { return alreadyCharged; }
+        public int getSkipped() { return skipped; }
+        public int getFailed() { return failed; }
+        public double getTotalFees() { return totalFees; }
+        public long getElapsedNanos() { return elapsedNanos; }
+        public String getSummaryFile() { return summaryFile; }
+        public String getDetailsFile() { return detailsFile; }
+        public boolean isSaved() { return saved; }
+
+        /**
+         * VOID METHOD: Counts the outcomes once all rows are filled in.
+         */
+        private void tally() {
+            // LOOPS: single pass over the finished table
+            for (int i = 0; i < outcomes.length; i++) {
+                switch (outcomes[i]) {
+                    case APPLIED:
+                        applied++;
+                        totalFees += fees[i];
+                        break;
+                    case ALREADY_CHARGED:
+                        alreadyCharged++;
+                        break;
+                    case SKIPPED:
+                        skipped++;
+                        break;
+                    default:
+                        failed++;
+                        break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Fork/join task evaluating rows [from, to) of the result table.
+     */
+    private static final class ChargeRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final FeeResultTable table;
+        private final int from;
+        private final int to;
+        private final String date;
+        private final YearMonth period;
+
+        ChargeRange(FeeResultTable table, int from, int to, String date, YearMonth period) {
+            this.table = table;
+            this.from = from;
+            this.to = to;
+            this.date = date;
+            this.period = period;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= AppConstants.BATCH_SPLIT_THRESHOLD) {
+                // LOOPS: evaluate this slice on the current worker
+                for (int i = from; i < to; i++) {
+                    chargeOne(table, i, date, period);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ChargeRange(table, from, middle, date, period),
+                      new ChargeRange(table, middle, to, date, period));
+        }
+    }
+
+    /**
+     * VOID METHOD: Evaluates one account and records its outcome; never throws.
+     */
+    private static void chargeOne(FeeResultTable table, int row, String date, YearMonth period) {
+        try {
+            CheckingAccount account = table.accounts[row];
+            if (account.isInOverdraft() && account.hasOverdraftFeeChargedFor(period)) {
+                table.outcomes[row] = Outcome.ALREADY_CHARGED;
+                return;
+            }
+            double fee = account.chargeOverdraftFee(date, period);
+            table.fees[row] = fee;
+            table.outcomes[row] = fee > 0 ? Outcome.APPLIED : Outcome.SKIPPED;
+        } catch (RuntimeException e) {
+            table.outcomes[row] = Outcome.FAILED;
+            table.messages[row] = e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Gathers every checking account of every regular user.
+     *
+     * @return Checking accounts in user registration order
+     */
+    public static CheckingAccount[] collectCheckingAccounts() {
+        List<CheckingAccount> checking = new ArrayList<>();
+        // LOOPS: flatten users and their accounts
+        for (RegularUser user : UserManager.getAllRegularUsers()) {
+            if (user == null) {
+                continue;
+            }
+            for (Account account : user.getAccounts()) {
+                if (account instanceof CheckingAccount) {
+                    checking.add((CheckingAccount) account);
+                }
+            }
+        }
+        return checking.toArray(new CheckingAccount[0]);
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Charges overdraft fees to every checking account,
+     * writes the summary file and saves all data once.
+     *
+     * @param period Month the fees are for
+     * @return Result table of the run
+     */
+    public static FeeResultTable chargeOverdraftFees(YearMonth period) {
+        FeeResultTable table = new FeeResultTable(collectCheckingAccounts());
+        String date = new java.text.SimpleDateFormat(AppConstants.DATE_FORMAT).format(new java.util.Date());
+
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            pool.invoke(new ChargeRange(table, 0, table.size(), date, period));
+        } finally {
+            pool.shutdown();
+        }
+        table.elapsedNanos = System.nanoTime() - start;
+        table.tally();
+
+        table.detailsFile = writeDetails(table);
+        table.summaryFile = writeSummary(table, date, period);
+
+        // Persist once for the whole batch
+        table.saved = DataStorage.saveAllData();
+        return table;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Streams one CSV row per account that was charged or failed.
+     * Rows go straight from the result table to the file, so memory does not grow with the batch.
+     *
+     * @return Path of the details file, or null if it could not be written
+     */
+    private static String writeDetails(FeeResultTable table) {
+        try (ReportWriter report = ReportWriter.open("overdraft-fees-details", ReportFormat.CSV, false,
+                                                     "account", "outcome", "fee", "message")) {
+            // LOOPS: only charged and failed rows are listed, to keep the file small
+            for (int i = 0; i < table.size(); i++) {
+                if (table.outcomes[i] == Outcome.APPLIED || table.outcomes[i] == Outcome.FAILED) {
+                    report.text(table.getAccountNumber(i)).text(table.outcomes[i].name())
+                          .money(table.fees[i]).text(table.messages[i]).endRow();
+                }
+            }
+            return report.getPath();
+        } catch (IOException e) {
+            System.out.println("Warning: Could not write overdraft fee details: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Writes the run summary file, pointing to the details file.
+     *
+     * @return Path of the summary file, or null if it could not be written
+     */
+    private static String writeSummary(FeeResultTable table, String date, YearMonth period) {
+        List<String> lines = new ArrayList<>();
+        lines.add("Overdraft fee run");
+        lines.add("Period: " + period);
+        lines.add("Posting date: " + date);
+        lines.add("Checking accounts: " + table.size());
+        lines.add("Applied: " + table.applied);
+        lines.add("Already charged for period: " + table.alreadyCharged);
+        lines.add("Skipped (not overdrawn): " + table.skipped);
+        lines.add("Failed: " + table.failed);
+        lines.add("Total fees: $" + InputValidator.formatMoney(table.totalFees));
+        lines.add("Elapsed: " + String.format("%.3f", table.elapsedNanos / 1_000_000_000.0) + "s");
+        lines.add("Details: " + (table.detailsFile == null ? "not written" : table.detailsFile));
+        try {
+            return BatchSummaryFile.write("overdraft-fees", lines);
+        } catch (IOException e) {
+            System.out.println("Warning: Could not write overdraft fee summary: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Private constructor to prevent instantiation
+    private OverdraftFeeEngine() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+}
@@ -0,0 +1,175 @@
+package pennywise.batch;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import pennywise.PasswordUtil;
+import pennywise.RegularUser;
+import pennywise.UserManager;
+import pennywise.data.DataStorage;
+
+/**
+ * PasswordMigrationJob class hashes every stored plain-text password in one batch run.
+ * Used after importing legacy users, whose users.txt entries are not hashed yet.
+ *
+ * The users to migrate are collected first, then split in halves on a ForkJoinPool
+ * until each task hashes at most SPLIT_THRESHOLD passwords. Each user is touched by
+ * exactly one task. The calling thread prints progress and throughput while the pool
+ * works, and all data is saved once when the job has finished.
+ */
+public class PasswordMigrationJob {
+
+    // Passwords hashed by one task before it stops splitting
+    private static final int SPLIT_THRESHOLD = 64;
+    private static final long PROGRESS_INTERVAL_MS = 1000;
+
+    /**
+     * Helper class holding the outcome of a migration run.
+     */
+    public static final class MigrationResult {
+        private final int scanned;
+        private final int migrated;
+        private final long elapsedNanos;
+        private final boolean saved;
+
+        MigrationResult(int scanned, int migrated, long elapsedNanos, boolean saved) {
+            this.scanned = scanned;
+            this.migrated = migrated;
+            this.elapsedNanos = elapsedNanos;
+            this.saved = saved;
+        }
+
+        public int getScanned() { return scanned; }
+        public int getMigrated() { return migrated; }
+        public long getElapsedNanos() { return elapsedNanos; }
+        public boolean isSaved() { return saved; }
+
+        public double getPasswordsPerSecond() {
+            return elapsedNanos == 0 ? 0 : migrated / (elapsedNanos / 1_000_000_000.0);
+        }
+    }
+
+    /**
+     * Fork/join task hashing the passwords of users[from, to).
+     */
+    private static final class MigrateRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final RegularUser[] users;
+        private final int from;
+        private final int to;
+        private final LongAdder done;
+
+        MigrateRange(RegularUser[] users, int from, int to, LongAdder done) {
+            this.users = users;
+            this.from = from;
+            this.to = to;
+            this.done = done;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                // LOOPS: hash this slice on the current worker
+                for (int i = from; i < to; i++) {
+                    RegularUser user = users[i];
+                    user.setPassword(PasswordUtil.migrateToHashed(user.getPassword()));
+                    done.increment();
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new MigrateRange(users, from, middle, done),
+                      new MigrateRange(users, middle, to, done));
+        }
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Migrates every plain-text password to the current hash format.
+     * Uses one worker per core.
+     *
+     * @return Result of the run
+     */
+    public static MigrationResult migrateAll() {
+        return migrateAll(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Migrates every plain-text password to the current hash format.
+     *
+     * @param parallelism Number of ForkJoinPool workers
+     * @return Result of the run
+     */
+    public static MigrationResult migrateAll(int parallelism) {
+        RegularUser[] allUsers = UserManager.getAllRegularUsers();
+        RegularUser[] pending = new RegularUser[allUsers.length];
+        int scanned = 0;
+        int pendingCount = 0;
+
+        // LOOPS: collect users whose password is not hashed yet
+        for (RegularUser user : allUsers) {
+            if (user == null) {
+                continue;
+            }
+            scanned++;
+            String password = user.getPassword();
+            if (password != null && !password.isEmpty() && !PasswordUtil.isPasswordHashed(password)) {
+                pending[pendingCount++] = user;
+            }
+        }
+
+        System.out.println("Scanned " + scanned + " users, " + pendingCount + " plain-text passwords to migrate.");
+        if (pendingCount == 0) {
+            return new MigrationResult(scanned, 0, 0, false);
+        }
+
+        LongAdder done = new LongAdder();
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            ForkJoinTask<Void> job = pool.submit(new MigrateRange(pending, 0, pendingCount, done));
+            // LOOPS: report progress until the job completes
+            while (true) {
+                try {
+                    job.get(PROGRESS_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                    break;
+                } catch (TimeoutException e) {
+                    printProgress(done.sum(), pendingCount, System.nanoTime() - start);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("Password migration interrupted after " + done.sum() + " passwords. Data not saved.");
+            return new MigrationResult(scanned, (int) done.sum(), System.nanoTime() - start, false);
+        } catch (ExecutionException e) {
+            System.out.println("Password migration failed: " + e.getCause() + ". Data not saved.");
+            return new MigrationResult(scanned, (int) done.sum(), System.nanoTime() - start, false);
+        } finally {
+            pool.shutdown();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        printProgress(pendingCount, pendingCount, elapsed);
+
+        // Persist once for the whole batch
+        boolean saved = DataStorage.saveAllData();
+        return new MigrationResult(scanned, pendingCount, elapsed, saved);
+    }
+
+    private static void printProgress(long done, int total, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        double rate = seconds == 0 ? 0 : done / seconds;
+        System.out.println("  Migrated " + done + "/" + total +
+                           " (" + String.format("%.1f", done * 100.0 / total) + "%), " +
+                           String.format("%,.0f", rate) + " passwords/s");
+    }
+
+    // Private constructor to prevent instantiation
+    private PasswordMigrationJob() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+}
@@ -0,0 +1,377 @@
+package pennywise.batch;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import pennywise.Account;
+import pennywise.CheckingAccount;
+import pennywise.RegularUser;
+import pennywise.SavingsAccount;
+import pennywise.UserManager;
+
+/**
+ * PortfolioSimulator class runs a dry-run of monthly interest and overdraft fees over many months.
+ *
+ * The balances, interest rates and overdraft fees of all accounts are copied once into
+ * primitive arrays (a Portfolio); the live accounts, their histories and the data files
+ * are never touched. Every month applies the same rules as the monthly batches: savings
+ * accounts earn rate / 12 on a positive balance, then overdrawn checking accounts pay
+ * their fee. Each run simulates a what-if scenario (one rate for every savings account
+ * and/or one fee for every checking account) next to a baseline with the current
+ * per-account values, so the impact of changing a default can be read off per month.
+ *
+ * Accounts are split across a ForkJoinPool; every task simulates all months for its own
+ * slice of the arrays and keeps per-month totals, which are added together afterwards.
+ * The end balances of the scenario and the baseline come from the closed-form
+ * SavingsAccount.projectBalances, one multiply per savings account.
+ */
+public class PortfolioSimulator {
+
+    // Accounts simulated per fork/join task
+    private static final int SPLIT_THRESHOLD = 4096;
+
+    /**
+     * Helper class holding a copy of the account state in primitive arrays.
+     * ARRAYS: index i of each savings array (and of each checking array) describes one account.
+     */
+    public static final class Portfolio {
+        private final double[] savingsBalances;
+        private final double[] savingsRates;
+        private final double[] checkingBalances;
+        private final double[] checkingFees;
+
+        /**
+         * Constructor to initialize a Portfolio from prepared arrays (the arrays are not copied).
+         *
+         * @param savingsBalances Savings balances
+         * @param savingsRates Annual savings interest rates, one per savings balance
+         * @param checkingBalances Checking balances
+         * @param checkingFees Overdraft fees, one per checking balance
+         */
+        public Portfolio(double[] savingsBalances, double[] savingsRates, double[] checkingBalances, double[] checkingFees) {
+            if (savingsBalances.length != savingsRates.length || checkingBalances.length != checkingFees.length) {
+                throw new IllegalArgumentException("Balance and rate/fee arrays must have matching lengths");
+            }
+            this.savingsBalances = savingsBalances;
+            this.savingsRates = savingsRates;
+            this.checkingBalances = checkingBalances;
+            this.checkingFees = checkingFees;
+        }
+
+        /**
+         * VALUE RETURNING METHOD: Copies the state of every live account into a new Portfolio.
+         *
+         * @return Snapshot of all savings and checking accounts
+         */
+        public static Portfolio capture() {
+            // LOOPS: first pass counts, second pass copies into exactly sized arrays
+            int savings = 0;
+            int checking = 0;
+            for (RegularUser user : UserManager.getAllRegularUsers()) {
+                if (user == null) {
+                    continue;
+                }
+                for (Account account : user.getAccounts()) {
+                    if (account instanceof SavingsAccount) savings++;
+                    else if (account instanceof CheckingAccount) checking++;
+                }
+            }
+
+            Portfolio portfolio = new Portfolio(new double[savings], new double[savings],
+                                                new double[checking], new double[checking]);
+            savings = 0;
+            checking = 0;
+            for (RegularUser user : UserManager.getAllRegularUsers()) {
+                if (user == null) {
+                    continue;
+                }
+                for (Account account : user.getAccounts()) {
+                    // The counts may have grown since the first pass; extra accounts are left out
+                    if (account instanceof SavingsAccount && savings < portfolio.savingsBalances.length) {
+                        portfolio.savingsBalances[savings] = account.getBalance();
+                        portfolio.savingsRates[savings] = ((SavingsAccount) account).getInterestRate();
+                        savings++;
+                    } else if (account instanceof CheckingAccount && checking < portfolio.checkingBalances.length) {
+                        portfolio.checkingBalances[checking] = account.getBalance();
+                        portfolio.checkingFees[checking] = ((CheckingAccount) account).getOverdraftFee();
+                        checking++;
+                    }
+                }
+            }
+            return portfolio;
+        }
+
+        public int getSavingsCount() { return savingsBalances.length; }
+        public int getCheckingCount() { return checkingBalances.length; }
+
+        /**
+         * VALUE RETURNING METHOD: Returns the total balance of all accounts in the portfolio.
+         */
+        public double getTotalBalance() {
+            double total = 0;
+            for (double balance : savingsBalances) total += balance;
+            for (double balance : checkingBalances) total += balance;
+            return total;
+        }
+    }
+
+    /**
+     * Helper class holding per-month totals of a simulation.
+     * ARRAYS: index m describes month m + 1; the baseline arrays use the current per-account values.
+     */
+    public static final class SimulationResult {
+        private final int months;
+        private final double[] interest;
+        private final double[] fees;
+        private final long[] feesCharged;
+        private final double[] baselineInterest;
+        private final double[] baselineFees;
+        private double startingBalance;
+        private double endingBalance;
+        private double baselineEndingBalance;
+        private int accounts;
+        private long elapsedNanos;
+
+        SimulationResult(int months) {
+            this.months = months;
+            this.interest = new double[months];
+            this.fees = new double[months];
+            this.feesCharged = new long[months];
+            this.baselineInterest = new double[months];
+            this.baselineFees = new double[months];
+        }
+
+        /**
+         * VALUE RETURNING METHOD: Adds the per-month totals of another part to this one.
+         */
+        SimulationResult merge(SimulationResult other) {
+            for (int m = 0; m < months; m++) {
+                interest[m] += other.interest[m];
+                fees[m] += other.fees[m];
+                feesCharged[m] += other.feesCharged[m];
+                baselineInterest[m] += other.baselineInterest[m];
+                baselineFees[m] += other.baselineFees[m];
+            }
+            return this;
+        }
+
+        public int getMonths() { return months; }
+        public int getAccounts() { return accounts; }
+        public double getStartingBalance() { return startingBalance; }
+        public double getEndingBalance() { return endingBalance; }
+        public double getBaselineEndingBalance() { return baselineEndingBalance; }
+        public long getElapsedNanos() { return elapsedNanos; }
+
+        // Month numbers start at 1
+        public double getInterest(int month) { return interest[month - 1]; }
+        public double getFees(int month) { return fees[month - 1]; }
+        public long getFeesCharged(int month) { return feesCharged[month - 1]; }
+        public double getBaselineInterest(int month) { return baselineInterest[month - 1]; }
+        public double getBaselineFees(int month) { return baselineFees[month - 1]; }
+
+        /**
+         * VALUE RETURNING METHOD: Returns the change in total balance during a month of the scenario.
+         */
+        public double getNetChange(int month) {
+            return interest[month - 1] - fees[month - 1];
+        }
+
+        /**
+         * VALUE RETURNING METHOD: Returns how much the scenario's month differs from the baseline's.
+         */
+        public double getDeltaVersusBaseline(int month) {
+            return getNetChange(month) - (baselineInterest[month - 1] - baselineFees[month - 1]);
+        }
+
+        /**
+         * VALUE RETURNING METHOD: Returns the total scenario balance at the end of a month.
+         */
+        public double getBalanceAfter(int month) {
+            double balance = startingBalance;
+            for (int m = 1; m <= month; m++) {
+                balance += getNetChange(m);
+            }
+            return balance;
+        }
+
+        /**
+         * VALUE RETURNING METHOD: Returns the total baseline balance at the end of a month.
+         */
+        public double getBaselineBalanceAfter(int month) {
+            double balance = startingBalance;
+            for (int m = 0; m < month; m++) {
+                balance += baselineInterest[m] - baselineFees[m];
+            }
+            return balance;
+        }
+
+        public double getTotalInterest() { return sum(interest); }
+        public double getTotalFees() { return sum(fees); }
+        public double getBaselineTotalInterest() { return sum(baselineInterest); }
+        public double getBaselineTotalFees() { return sum(baselineFees); }
+
+        private static double sum(double[] values) {
+            double total = 0;
+            for (double value : values) total += value;
+            return total;
+        }
+    }
+
+    /**
+     * Fork/join task simulating accounts [from, to), where indexes below the savings
+     * count are savings accounts and the rest are checking accounts.
+     */
+    private static final class SimulateRange extends RecursiveTask<SimulationResult> {
+        private static final long serialVersionUID = 1L;
+
+        private final Portfolio portfolio;
+        private final int from;
+        private final int to;
+        private final int months;
+        private final double whatIfRate;
+        private final double whatIfFee;
+
+        SimulateRange(Portfolio portfolio, int from, int to, int months, double whatIfRate, double whatIfFee) {
+            this.portfolio = portfolio;
+            this.from = from;
+            this.to = to;
+            this.months = months;
+            this.whatIfRate = whatIfRate;
+            this.whatIfFee = whatIfFee;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                SimulationResult part = new SimulationResult(months);
+                int savingsCount = portfolio.getSavingsCount();
+                // LOOPS: account by account, all months at a time, so each balance stays in a register
+                for (int i = from; i < to; i++) {
+                    if (i < savingsCount) {
+                        simulateSavings(part, portfolio.savingsBalances[i], portfolio.savingsRates[i]);
+                    } else {
+                        int c = i - savingsCount;
+                        simulateChecking(part, portfolio.checkingBalances[c], portfolio.checkingFees[c]);
+                    }
+                }
+                return part;
+            }
+            int middle = (from + to) >>> 1;
+            SimulateRange left = new SimulateRange(portfolio, from, middle, months, whatIfRate, whatIfFee);
+            left.fork();
+            SimulationResult right = new SimulateRange(portfolio, middle, to, months, whatIfRate, whatIfFee).compute();
+            return left.join().merge(right);
+        }
+
+        private void simulateSavings(SimulationResult part, double balance, double rate) {
+            double monthlyRate = (Double.isNaN(whatIfRate) ? rate : whatIfRate) / 12;
+            double baselineRate = rate / 12;
+            double baseline = balance;
+            // SELECTION: no interest is ever earned without a positive balance
+            if (balance <= 0) {
+                return;
+            }
+            for (int m = 0; m < months; m++) {
+                double interest = balance * monthlyRate;
+                if (interest > 0) {
+                    balance += interest;
+                    part.interest[m] += interest;
+                }
+                double baselineInterest = baseline * baselineRate;
+                if (baselineInterest > 0) {
+                    baseline += baselineInterest;
+                    part.baselineInterest[m] += baselineInterest;
+                }
+            }
+        }
+
+        private void simulateChecking(SimulationResult part, double balance, double fee) {
+            double scenarioFee = Double.isNaN(whatIfFee) ? fee : whatIfFee;
+            // SELECTION: only overdrawn accounts pay fees, and fees keep them overdrawn
+            if (balance >= 0) {
+                return;
+            }
+            for (int m = 0; m < months; m++) {
+                if (scenarioFee > 0) {
+                    part.fees[m] += scenarioFee;
+                    part.feesCharged[m]++;
+                }
+                if (fee > 0) {
+                    part.baselineFees[m] += fee;
+                }
+            }
+        }
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Simulates months of interest and overdraft fees on a portfolio.
+     * The portfolio arrays are only read.
+     *
+     * @param portfolio Account state to start from
+     * @param months Number of months to simulate
+     * @param whatIfRate Annual savings rate for every savings account, or NaN to keep each account's rate
+     * @param whatIfFee Overdraft fee for every checking account, or NaN to keep each account's fee
+     * @return Per-month totals of the scenario and the baseline
+     */
+    public static SimulationResult simulate(Portfolio portfolio, int months, double whatIfRate, double whatIfFee) {
+        if (months <= 0) {
+            throw new IllegalArgumentException("Number of months must be positive");
+        }
+        int accounts = portfolio.getSavingsCount() + portfolio.getCheckingCount();
+
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        SimulationResult result;
+        try {
+            result = pool.invoke(new SimulateRange(portfolio, 0, accounts, months, whatIfRate, whatIfFee));
+        } finally {
+            pool.shutdown();
+        }
+        result.elapsedNanos = System.nanoTime() - start;
+        result.accounts = accounts;
+        result.startingBalance = portfolio.getTotalBalance();
+        result.endingBalance = projectEndingBalance(portfolio, months, whatIfRate) - result.getTotalFees();
+        result.baselineEndingBalance = projectEndingBalance(portfolio, months, Double.NaN) - result.getBaselineTotalFees();
+        return result;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Projects the total balance after some months of savings interest,
+     * before overdraft fees, with the closed form instead of month by month.
+     * Like the monthly rules, balances that are not positive and negative rates earn nothing.
+     *
+     * @param portfolio Account state to start from
+     * @param months Number of months to project
+     * @param whatIfRate Annual savings rate for every savings account, or NaN to keep each account's rate
+     * @return Total balance of all accounts before fees
+     */
+    private static double projectEndingBalance(Portfolio portfolio, int months, double whatIfRate) {
+        int count = portfolio.getSavingsCount();
+        double[] earning = new double[count];
+        double[] rates = new double[count];
+        double total = 0;
+        // LOOPS: only positive balances compound; the others are carried over unchanged
+        for (int i = 0; i < count; i++) {
+            double balance = portfolio.savingsBalances[i];
+            if (balance > 0) {
+                earning[i] = balance;
+            } else {
+                total += balance;
+            }
+            rates[i] = Math.max(0, portfolio.savingsRates[i]);
+        }
+        // SELECTION: one shared factor for a what-if rate, one per account otherwise
+        if (Double.isNaN(whatIfRate)) {
+            SavingsAccount.projectBalances(earning, rates, months, earning);
+        } else {
+            SavingsAccount.projectBalances(earning, Math.max(0, whatIfRate), months, earning);
+        }
+        for (double balance : earning) total += balance;
+        for (double balance : portfolio.checkingBalances) total += balance;
+        return total;
+    }
+
+    // Private constructor to prevent instantiation
+    private PortfolioSimulator() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+}
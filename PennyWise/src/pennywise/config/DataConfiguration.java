@@ -68,6 +68,9 @@ public class DataConfiguration extends DataPersistence {
             writer.println("DEFAULT_CHECKING_OVERDRAFT_LIMIT=" + config.getDefaultCheckingOverdraftLimit());
             writer.println("DEFAULT_CHECKING_OVERDRAFT_FEE=" + config.getDefaultCheckingOverdraftFee());
             writer.println("DEFAULT_SAVINGS_MAX_WITHDRAWALS=" + config.getDefaultSavingsMaxWithdrawals());
+            writer.println("ARCHIVE_HORIZON_DAYS=" + config.getArchiveHorizonDays());
+            writer.println("PASSWORD_HASH_ITERATIONS=" + config.getPasswordHashIterations());
+            writer.println("BATCH_RUN_DAY=" + config.getBatchRunDay());
         }
     }
     
@@ -123,6 +126,15 @@ public class DataConfiguration extends DataPersistence {
                             case "DEFAULT_SAVINGS_MAX_WITHDRAWALS":
                                 config.setDefaultSavingsMaxWithdrawals(Integer.parseInt(value));
                                 break;
+                            case "ARCHIVE_HORIZON_DAYS":
+                                config.setArchiveHorizonDays(Integer.parseInt(value));
+                                break;
+                            case "PASSWORD_HASH_ITERATIONS":
+                                config.setPasswordHashIterations(Integer.parseInt(value));
+                                break;
+                            case "BATCH_RUN_DAY":
+                                config.setBatchRunDay(Integer.parseInt(value));
+                                break;
                             default:
                                 break;
                         }
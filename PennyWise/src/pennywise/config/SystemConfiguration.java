@@ -12,6 +12,9 @@ import pennywise.InputValidator;
  * - Default overdraft limit for checking accounts
  * - Default overdraft fee for checking accounts
  * - Default maximum withdrawals per month for savings accounts
+ * - Transaction archive horizon (days of history kept in memory)
+ * - Password hash cost (PBKDF2 iterations for new hashes)
+ * - Day of month for scheduled interest and fee batch runs
  */
 public class SystemConfiguration {
     // SINGLETON: Static instance with default values
@@ -22,6 +25,9 @@ public class SystemConfiguration {
     private double defaultCheckingOverdraftLimit;
     private double defaultCheckingOverdraftFee;
     private int defaultSavingsMaxWithdrawals;
+    private int archiveHorizonDays;
+    private int passwordHashIterations;
+    private int batchRunDay;
     
     /**
      * Initializes with default values from AppConstants.
@@ -31,6 +37,9 @@ public class SystemConfiguration {
         this.defaultCheckingOverdraftLimit = AppConstants.DEFAULT_CHECKING_OVERDRAFT_LIMIT;
         this.defaultCheckingOverdraftFee = AppConstants.DEFAULT_CHECKING_OVERDRAFT_FEE;
         this.defaultSavingsMaxWithdrawals = AppConstants.DEFAULT_SAVINGS_MAX_WITHDRAWALS;
+        this.archiveHorizonDays = AppConstants.DEFAULT_ARCHIVE_HORIZON_DAYS;
+        this.passwordHashIterations = AppConstants.DEFAULT_PASSWORD_HASH_ITERATIONS;
+        this.batchRunDay = AppConstants.DEFAULT_BATCH_RUN_DAY;
     }
     
     /**
@@ -88,6 +97,37 @@ public class SystemConfiguration {
         }
     }
     
+    public int getArchiveHorizonDays() {
+        return archiveHorizonDays;
+    }
+    
+    public void setArchiveHorizonDays(int days) {
+        if (days >= 0) {
+            this.archiveHorizonDays = days;
+        }
+    }
+    
+    public int getPasswordHashIterations() {
+        return passwordHashIterations;
+    }
+    
+    public void setPasswordHashIterations(int iterations) {
+        if (iterations >= AppConstants.MIN_PASSWORD_HASH_ITERATIONS
+                && iterations <= AppConstants.MAX_PASSWORD_HASH_ITERATIONS) {
+            this.passwordHashIterations = iterations;
+        }
+    }
+    
+    public int getBatchRunDay() {
+        return batchRunDay;
+    }
+    
+    public void setBatchRunDay(int day) {
+        if (day >= 0 && day <= AppConstants.MAX_BATCH_RUN_DAY) {
+            this.batchRunDay = day;
+        }
+    }
+    
     /**
      * VOID METHOD: Display all current configuration settings.
      */
@@ -97,6 +137,9 @@ public class SystemConfiguration {
         System.out.println("Default Checking Overdraft Limit: $" + InputValidator.formatMoney(defaultCheckingOverdraftLimit));
         System.out.println("Default Checking Overdraft Fee: $" + InputValidator.formatMoney(defaultCheckingOverdraftFee));
         System.out.println("Default Savings Max Withdrawals/Month: " + defaultSavingsMaxWithdrawals);
+        System.out.println("Transaction Archive Horizon: " + (archiveHorizonDays == 0 ? "Disabled" : archiveHorizonDays + " days"));
+        System.out.println("Password Hash Cost: " + passwordHashIterations + " PBKDF2 iterations");
+        System.out.println("Scheduled Interest/Fee Runs: " + (batchRunDay == 0 ? "Manual only" : "Day " + batchRunDay + " of each month, on that day's balances"));
         System.out.println("=========================================");
     }
 }
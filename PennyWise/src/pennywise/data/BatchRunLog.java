@@ -0,0 +1,129 @@
+package pennywise.data;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BatchRunLog class records batch runs by idempotency key in data/batch_runs.txt.
+ * Demonstrates FILE I/O operations.
+ *
+ * The key names a job and the period it covers (e.g. "INTEREST:2026-10"). A run writes
+ * STARTED before it touches any account and COMPLETED once its data has been saved, so
+ * a key that is STARTED but not COMPLETED belongs to a run that was interrupted.
+ * The file is append-only; the last line for a key wins.
+ *
+ * Format: key|status|timestamp|detail
+ */
+public class BatchRunLog {
+
+    public static final String STATUS_STARTED = "STARTED";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+
+    private static final String RUNS_FILE = DataPersistence.DATA_DIR + "/batch_runs.txt";
+
+    // Latest status per key, loaded from the file on first use
+    private static Map<String, String> statuses;
+
+    /**
+     * VOID METHOD: Records that a run has started.
+     *
+     * @param key Idempotency key of the run
+     * @throws IOException if the log cannot be written
+     */
+    public static synchronized void recordStarted(String key) throws IOException {
+        append(key, STATUS_STARTED, "");
+    }
+
+    /**
+     * VOID METHOD: Records that a run has finished and its data is saved.
+     *
+     * @param key Idempotency key of the run
+     * @param detail Short result description
+     * @throws IOException if the log cannot be written
+     */
+    public static synchronized void recordCompleted(String key, String detail) throws IOException {
+        append(key, STATUS_COMPLETED, detail);
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Checks whether a run has completed.
+     *
+     * @param key Idempotency key of the run
+     * @return true if the latest record for the key is COMPLETED
+     */
+    public static synchronized boolean isCompleted(String key) {
+        return STATUS_COMPLETED.equals(getStatuses().get(key));
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Lists runs that were started but never completed.
+     *
+     * @return Keys of interrupted runs, oldest first
+     */
+    public static synchronized List<String> findUnfinished() {
+        List<String> unfinished = new ArrayList<>();
+        for (Map.Entry<String, String> entry : getStatuses().entrySet()) {
+            if (STATUS_STARTED.equals(entry.getValue())) {
+                unfinished.add(entry.getKey());
+            }
+        }
+        return unfinished;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Deletes the log (used when all stored data is deleted).
+     *
+     * @return true if the log no longer exists
+     */
+    public static synchronized boolean delete() {
+        statuses = null;
+        File file = new File(RUNS_FILE);
+        return !file.exists() || file.delete();
+    }
+
+    private static void append(String key, String status, String detail) throws IOException {
+        DataPersistence.ensureDataDirectory();
+        try (PrintWriter writer = new PrintWriter(new FileWriter(RUNS_FILE, true))) {
+            writer.println(key + "|" + status + "|" + LocalDateTime.now() + "|" + detail);
+        }
+        getStatuses().remove(key); // re-insert so keys stay in order of their latest record
+        getStatuses().put(key, status);
+    }
+
+    private static Map<String, String> getStatuses() {
+        if (statuses == null) {
+            statuses = new LinkedHashMap<>();
+            File file = new File(RUNS_FILE);
+            if (file.exists()) {
+                try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+                    String line;
+                    // LOOPS: replay the log, the last record of a key wins
+                    while ((line = reader.readLine()) != null) {
+                        String[] parts = line.split("\\|");
+                        if (parts.length >= 2) {
+                            statuses.remove(parts[0]);
+                            statuses.put(parts[0], parts[1]);
+                        }
+                    }
+                } catch (IOException e) {
+                    System.out.println("Warning: Could not read batch run log: " + e.getMessage());
+                }
+            }
+        }
+        return statuses;
+    }
+
+    // Private constructor to prevent instantiation
+    private BatchRunLog() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+}
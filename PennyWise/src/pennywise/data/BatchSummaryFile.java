@@ -0,0 +1,61 @@
+package pennywise.data;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * BatchSummaryFile class writes the summary of a batch run to its own text file.
+ * Demonstrates FILE I/O operations.
+ *
+ * Summaries go to data/reports/<job>-<yyyyMMdd-HHmmss>.txt, so every run leaves a
+ * record next to the data it changed.
+ */
+public class BatchSummaryFile {
+
+    private static final String REPORTS_DIR = DataPersistence.DATA_DIR + "/reports";
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    /**
+     * VALUE RETURNING METHOD: Writes a summary file for one batch run.
+     *
+     * @param jobName Short job name used in the file name (e.g. "interest")
+     * @param lines Summary lines
+     * @return Path of the written file
+     * @throws IOException if the file cannot be written
+     */
+    public static String write(String jobName, List<String> lines) throws IOException {
+        File file = new File(reportsDirectory(), jobName + "-" + LocalDateTime.now().format(STAMP) + ".txt");
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            // LOOPS: one line per summary entry
+            for (String line : lines) {
+                writer.println(line);
+            }
+        }
+        return file.getPath();
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Returns the reports directory, creating it if needed.
+     * Report files written by pennywise.report go to the same directory.
+     *
+     * @return Reports directory
+     * @throws IOException if the directory cannot be created
+     */
+    public static File reportsDirectory() throws IOException {
+        File dir = new File(REPORTS_DIR);
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Could not create reports directory " + dir.getPath());
+        }
+        return dir;
+    }
+
+    // Private constructor to prevent instantiation
+    private BatchSummaryFile() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+}
@@ -22,6 +22,10 @@ public class DataLoader extends DataPersistence {
     // Temporary storage for accounts and transactions during loading
     private static final Map<String, List<AccountData>> userAccountsMap = new HashMap<>();
     private static final Map<String, List<TransactionData>> accountTransactionsMap = new HashMap<>();
+    // Archived transaction count per account as recorded in the transactions file (empty for older files)
+    private static final Map<String, Integer> archivedCounts = new HashMap<>();
+    // Account numbers whose archive is already attached; a duplicate number never shares it
+    private static final Set<String> restoredArchives = new HashSet<>();
     
     /**
      * Helper class to store account data during loading process.
@@ -51,11 +55,13 @@ public class DataLoader extends DataPersistence {
         double amount;
         String type;
         String date;
+        double balanceAfter; // NaN for files written before running balances were stored
         
-        TransactionData(double amt, String typ, String dt) {
+        TransactionData(double amt, String typ, String dt, double balAfter) {
             this.amount = amt;
             this.type = typ;
             this.date = dt;
+            this.balanceAfter = balAfter;
         }
     }
     
@@ -109,6 +115,8 @@ public class DataLoader extends DataPersistence {
         // Clear temporary storage before loading
         userAccountsMap.clear();
         accountTransactionsMap.clear();
+        restoredArchives.clear();
+        archivedCounts.clear();
     }
     
     /**
@@ -176,7 +184,9 @@ public class DataLoader extends DataPersistence {
                         }
                     }
                     
-                    UserManager.addRegularUser(user);
+                    if (!UserManager.addRegularUser(user)) {
+                        System.out.println("Warning: Skipping duplicate username in users file: " + username);
+                    }
                 } else if (userType.equals("ADMIN")) {
                     // Admin users are hardcoded, skip loading from file
                     // Or you could load them if you want persistent admin accounts
@@ -240,14 +250,20 @@ public class DataLoader extends DataPersistence {
             String line;
             while ((line = reader.readLine()) != null) {
                 String[] parts = line.split("\\|");
+                // SELECTION: archive marker written before the account's transactions
+                if (parts.length == 3 && parts[0].equals(ARCHIVED_MARKER)) {
+                    archivedCounts.putIfAbsent(parts[1], Integer.parseInt(parts[2]));
+                    continue;
+                }
                 if (parts.length < 4) continue;
 
                 String accountNumber = parts[0];
                 double amount = Double.parseDouble(parts[1]);
                 String type = parts[2];
                 String date = parts[3];
+                double balanceAfter = parts.length >= 5 ? Double.parseDouble(parts[4]) : Double.NaN;
                 
-                TransactionData transData = new TransactionData(amount, type, date);
+                TransactionData transData = new TransactionData(amount, type, date, balanceAfter);
                 
                 // Store in map for later association with account
                 accountTransactionsMap.putIfAbsent(accountNumber, new ArrayList<>());
@@ -278,16 +294,64 @@ public class DataLoader extends DataPersistence {
         return account;
     }
     
+    /**
+     * Keeps only the archive segments the transactions file was written against.
+     * A save that was interrupted after archiving but before the transactions file was
+     * replaced leaves extra segments whose transactions are still in the old file;
+     * those segments are dropped from the index so nothing is loaded twice.
+     */
+    private static List<TransactionArchive.SegmentInfo> reconcileArchive(String accountNumber,
+            List<TransactionArchive.SegmentInfo> segments) throws IOException {
+        // SELECTION: files written before the marker existed trust the whole index
+        if (archivedCounts.isEmpty()) {
+            return segments;
+        }
+        int expected = archivedCounts.getOrDefault(accountNumber, 0);
+        int archived = 0;
+        int kept = 0;
+        // LOOPS: the longest prefix of segments that fits the recorded count
+        while (kept < segments.size() && archived + segments.get(kept).count <= expected) {
+            archived += segments.get(kept).count;
+            kept++;
+        }
+        if (archived != expected) {
+            System.out.println("Warning: Archive of account " + accountNumber + " holds " + archived +
+                               " of the " + expected + " archived transactions the transactions file expects");
+            return segments;
+        }
+        if (kept < segments.size()) {
+            System.out.println("Warning: Discarding " + (segments.size() - kept) + " archive segment(s) of account " +
+                               accountNumber + " left by an interrupted save");
+            TransactionArchive.truncate(accountNumber, kept);
+            return segments.subList(0, kept);
+        }
+        return segments;
+    }
+    
     /**
      * Loads transactions for a specific account from temporary storage.
      */
     private static void loadTransactionsForAccount(Account account, String accountNumber) {
+        // Archived history comes first; only its summaries are read here.
+        // SELECTION: the first account loaded under a number keeps it (as in the account index)
+        if (restoredArchives.add(accountNumber)) {
+            try {
+                account.restoreArchive(reconcileArchive(accountNumber, TransactionArchive.readIndex(accountNumber)));
+            } catch (IOException | NumberFormatException e) {
+                System.out.println("Warning: Could not read transaction archive of account " + accountNumber + ": " + e.getMessage());
+            }
+        } else {
+            System.out.println("Warning: Duplicate account number " + accountNumber + "; its archive stays with the first account");
+        }
+        
         List<TransactionData> transactions = accountTransactionsMap.get(accountNumber);
         if (transactions != null) {
             for (TransactionData transData : transactions) {
                 // Manually add transaction to account (bypass recordTransaction to avoid duplicates)
-                account.recordTransactionFromLoad(transData.amount, transData.type, transData.date);
+                account.recordTransactionFromLoad(transData.amount, transData.type, transData.date, transData.balanceAfter);
             }
         }
+        // Restore running balances and balance checkpoints
+        account.rebuildBalanceHistory();
     }
 }
@@ -17,6 +17,8 @@ public abstract class DataPersistence {
     protected static final String USERS_FILE = DATA_DIR + "/users.txt";
     protected static final String ACCOUNTS_FILE = DATA_DIR + "/accounts.txt";
     protected static final String TRANSACTIONS_FILE = DATA_DIR + "/transactions.txt";
+    // Line in the transactions file: #ARCHIVED|accountNumber|archivedCount (the archive the lines after it continue)
+    protected static final String ARCHIVED_MARKER = "#ARCHIVED";
     
     /**
      * TEMPLATE METHOD: Defines the algorithm structure for persistence operations.
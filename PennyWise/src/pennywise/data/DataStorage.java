@@ -1,6 +1,11 @@
 package pennywise.data;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
 import pennywise.Account;
 import pennywise.Admin;
 import pennywise.CheckingAccount;
@@ -11,6 +16,7 @@ import pennywise.Transaction;
 import pennywise.User;
 import pennywise.UserManager;
 import pennywise.config.DataConfiguration;
+import pennywise.config.SystemConfiguration;
 
 /**
  * DataStorage class handles saving all application data to files.
@@ -42,6 +48,7 @@ public class DataStorage extends DataPersistence {
      */
     @Override
     protected boolean performOperation() throws IOException {
+        UserManager.compactUsers(); // Reclaim slots of removed users before walking the list
         saveUsers();
         saveAccounts();
         saveTransactions();
@@ -149,10 +156,22 @@ public class DataStorage extends DataPersistence {
     
     /**
      * Saves all transactions for all accounts.
-     * Format: accountNumber|amount|type|date
+     * Transactions older than the archive horizon are first moved to the archive,
+     * so only recent history is rewritten here.
+     * Format: #ARCHIVED|accountNumber|archivedCount, then accountNumber|amount|type|date|balanceAfter
+     * 
+     * Archive segments are committed before this file, so the file is written to a temporary
+     * file and renamed, and records how many archived transactions each account had. If a
+     * crash hits between the two steps, the loader ignores the segments the old file does not know.
      */
     private static void saveTransactions() throws IOException {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(TRANSACTIONS_FILE))) {
+        int horizonDays = SystemConfiguration.getInstance().getArchiveHorizonDays();
+        LocalDate cutoff = LocalDate.now().minusDays(horizonDays);
+        Set<String> liveAccountNumbers = new HashSet<>();
+        File target = new File(TRANSACTIONS_FILE);
+        File temp = new File(TRANSACTIONS_FILE + ".tmp");
+        
+        try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(temp)))) {
             int userCount = UserManager.getUserCount();
             
             for (int i = 0; i < userCount; i++) {
@@ -162,22 +181,58 @@ public class DataStorage extends DataPersistence {
                     if (accounts != null) {
                         for (Account account : accounts) {
                             if (account != null) {
-                                int transCount = account.getTransactionCount();
-                                for (int j = 0; j < transCount; j++) {
-                                    Transaction trans = account.getTransaction(j);
-                                    if (trans != null) {
-                                        // Format: accountNumber|amount|type|date
-                                        writer.println(account.getAccountNumber() + "|" + 
-                                                     trans.getAmount() + "|" + 
-                                                     trans.getType() + "|" + 
-                                                     trans.getDate());
-                                    }
+                                String accountNumber = account.getAccountNumber();
+                                liveAccountNumbers.add(accountNumber);
+                                
+                                // SELECTION: a horizon of 0 keeps all history in memory
+                                if (horizonDays > 0) {
+                                    archiveOldTransactions(account, cutoff);
+                                }
+                                
+                                writer.print(ARCHIVED_MARKER);
+                                writer.print('|');
+                                writer.print(accountNumber);
+                                writer.print('|');
+                                writer.println(account.getArchivedTransactionCount());
+                                
+                                // LOOPS: stream the in-memory history straight to the writer
+                                for (Transaction trans : account.transactions().skip(account.getArchivedTransactionCount())) {
+                                    // Format: accountNumber|amount|type|date|balanceAfter
+                                    writer.print(accountNumber);
+                                    writer.print('|');
+                                    writer.print(trans.getAmount());
+                                    writer.print('|');
+                                    writer.print(trans.getType());
+                                    writer.print('|');
+                                    writer.print(trans.getDate());
+                                    writer.print('|');
+                                    writer.println(trans.getBalanceAfter());
                                 }
                             }
                         }
                     }
                 }
             }
+            if (writer.checkError()) {
+                throw new IOException("Could not write " + temp.getPath());
+            }
+        }
+        Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        
+        // Archives of closed accounts must not be picked up by a future account with the same number
+        TransactionArchive.deleteOrphans(liveAccountNumbers);
+    }
+    
+    /**
+     * Moves the old transactions of an account to the archive.
+     * A failure only leaves the transactions in memory, they are still saved with the rest.
+     */
+    private static void archiveOldTransactions(Account account, LocalDate cutoff) {
+        try {
+            account.archiveTransactionsBefore(cutoff);
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println("Warning: Could not archive transactions of account " +
+                               account.getAccountNumber() + ": " + e.getMessage());
         }
     }
 
@@ -201,6 +256,8 @@ public class DataStorage extends DataPersistence {
             if (transFile.exists()) {
                 success &= transFile.delete();
             }
+            success &= TransactionArchive.deleteAll();
+            success &= BatchRunLog.delete();
             
             return success;
         } catch (Exception e) {
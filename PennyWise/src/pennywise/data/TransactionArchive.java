@@ -0,0 +1,242 @@
+package pennywise.data;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import pennywise.Transaction;
+
+/**
+ * TransactionArchive class stores the cold tier of transaction history.
+ * Demonstrates FILE I/O operations with compressed files.
+ *
+ * Each account has its own directory under data/archive containing immutable,
+ * gzip-compressed segment files and an index file with one summary line per segment.
+ * Segments are only ever added, never rewritten, so a save no longer has to rewrite
+ * old history.
+ *
+ * Segment format (one transaction per line): amount|type|date|balanceAfter
+ * Index format: count|netAmount|firstDate|firstBalance|firstOverdraftDays|lastDate|lastBalance|lastOverdraftDays
+ */
+public class TransactionArchive {
+
+    private static final String ARCHIVE_DIR = DataPersistence.DATA_DIR + "/archive";
+    private static final String INDEX_FILE = "index.txt";
+
+    /**
+     * Helper class summarising one archived segment.
+     * Kept in memory so archived history can be queried without reading the segment.
+     */
+    public static class SegmentInfo {
+        public final int count;
+        public final double netAmount;          // sum of signed amounts in the segment
+        public final String firstDate;
+        public final double firstBalance;
+        public final long firstOverdraftDays;   // cumulative overdraft days at the first transaction
+        public final String lastDate;
+        public final double lastBalance;
+        public final long lastOverdraftDays;    // cumulative overdraft days at the last transaction
+
+        public SegmentInfo(int count, double netAmount, String firstDate, double firstBalance, long firstOverdraftDays,
+                           String lastDate, double lastBalance, long lastOverdraftDays) {
+            this.count = count;
+            this.netAmount = netAmount;
+            this.firstDate = firstDate;
+            this.firstBalance = firstBalance;
+            this.firstOverdraftDays = firstOverdraftDays;
+            this.lastDate = lastDate;
+            this.lastBalance = lastBalance;
+            this.lastOverdraftDays = lastOverdraftDays;
+        }
+    }
+
+    /**
+     * VOID METHOD: Writes a new immutable segment and records it in the account's index.
+     * The segment is written to a temporary file and renamed, so a crash never leaves
+     * a half-written segment behind.
+     *
+     * @param accountNumber Account the segment belongs to
+     * @param segmentNumber Sequence number of the new segment
+     * @param transactions Source array
+     * @param offset First transaction to archive
+     * @param count Number of transactions to archive
+     * @param info Summary of the segment
+     * @throws IOException if file operations fail
+     */
+    public static void writeSegment(String accountNumber, int segmentNumber, Transaction[] transactions,
+                                    int offset, int count, SegmentInfo info) throws IOException {
+        File dir = getAccountDirectory(accountNumber);
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Could not create archive directory " + dir.getPath());
+        }
+
+        File segment = getSegmentFile(accountNumber, segmentNumber);
+        File temp = new File(dir, segment.getName() + ".tmp");
+        try (PrintWriter writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(new FileOutputStream(temp)), StandardCharsets.UTF_8)))) {
+            // LOOPS: one line per archived transaction
+            for (int i = offset; i < offset + count; i++) {
+                Transaction t = transactions[i];
+                writer.print(t.getAmount());
+                writer.print('|');
+                writer.print(t.getType());
+                writer.print('|');
+                writer.print(t.getDate());
+                writer.print('|');
+                writer.println(t.getBalanceAfter());
+            }
+        }
+        Files.move(temp.toPath(), segment.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        try (PrintWriter writer = new PrintWriter(new FileWriter(new File(dir, INDEX_FILE), true))) {
+            writer.println(info.count + "|" + info.netAmount + "|" +
+                           info.firstDate + "|" + info.firstBalance + "|" + info.firstOverdraftDays + "|" +
+                           info.lastDate + "|" + info.lastBalance + "|" + info.lastOverdraftDays);
+        }
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Reads one archived segment back into memory.
+     *
+     * @param accountNumber Account the segment belongs to
+     * @param segmentNumber Sequence number of the segment
+     * @return Transactions of the segment, oldest first
+     * @throws IOException if the segment cannot be read
+     */
+    public static Transaction[] readSegment(String accountNumber, int segmentNumber) throws IOException {
+        List<Transaction> page = new ArrayList<>();
+        File segment = getSegmentFile(accountNumber, segmentNumber);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new FileInputStream(segment)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\\|");
+                if (parts.length < 4) continue;
+                page.add(new Transaction(Double.parseDouble(parts[0]), parts[1], parts[2], Double.parseDouble(parts[3])));
+            }
+        }
+        return page.toArray(new Transaction[0]);
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Reads the segment summaries of an account.
+     *
+     * @param accountNumber Account to read the index for
+     * @return Segment summaries in segment order (empty if the account has no archive)
+     * @throws IOException if the index cannot be read
+     */
+    public static List<SegmentInfo> readIndex(String accountNumber) throws IOException {
+        List<SegmentInfo> segments = new ArrayList<>();
+        File index = new File(getAccountDirectory(accountNumber), INDEX_FILE);
+        if (!index.exists()) {
+            return segments;
+        }
+        try (BufferedReader reader = new BufferedReader(new FileReader(index))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\\|");
+                if (parts.length < 8) continue;
+                segments.add(new SegmentInfo(Integer.parseInt(parts[0]), Double.parseDouble(parts[1]),
+                                             parts[2], Double.parseDouble(parts[3]), Long.parseLong(parts[4]),
+                                             parts[5], Double.parseDouble(parts[6]), Long.parseLong(parts[7])));
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * VOID METHOD: Drops every segment from a position on, both from the index and from disk.
+     * Used when a save was interrupted after these segments were committed.
+     *
+     * @param accountNumber Account whose archive is cut back
+     * @param keptSegments Number of segments to keep
+     * @throws IOException if the index cannot be rewritten
+     */
+    public static void truncate(String accountNumber, int keptSegments) throws IOException {
+        File dir = getAccountDirectory(accountNumber);
+        // SELECTION: nothing left to keep, so the account starts without an archive again
+        if (keptSegments == 0) {
+            if (!deleteRecursively(dir)) {
+                throw new IOException("Could not delete archive directory " + dir.getPath());
+            }
+            return;
+        }
+        File index = new File(dir, INDEX_FILE);
+        List<String> lines = Files.readAllLines(index.toPath());
+        File temp = new File(dir, INDEX_FILE + ".tmp");
+        Files.write(temp.toPath(), lines.subList(0, Math.min(keptSegments, lines.size())));
+        Files.move(temp.toPath(), index.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        // LOOPS: remove the segment files the index no longer lists
+        for (int segment = keptSegments; getSegmentFile(accountNumber, segment).exists(); segment++) {
+            getSegmentFile(accountNumber, segment).delete();
+        }
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Deletes every archive file.
+     *
+     * @return true if the archive directory no longer exists
+     */
+    public static boolean deleteAll() {
+        return deleteRecursively(new File(ARCHIVE_DIR));
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Checks whether an account number has archive files on disk.
+     *
+     * @param accountNumber Account number to check
+     * @return true if the archive directory of the number exists
+     */
+    public static boolean exists(String accountNumber) {
+        return getAccountDirectory(accountNumber).exists();
+    }
+
+    /**
+     * VOID METHOD: Deletes archives of accounts that no longer exist.
+     *
+     * @param liveAccountNumbers Account numbers that are still in use
+     */
+    public static void deleteOrphans(Set<String> liveAccountNumbers) {
+        File[] directories = new File(ARCHIVE_DIR).listFiles(File::isDirectory);
+        if (directories == null) {
+            return;
+        }
+        // LOOPS: remove every directory without a matching account
+        for (File dir : directories) {
+            if (!liveAccountNumbers.contains(dir.getName())) {
+                deleteRecursively(dir);
+            }
+        }
+    }
+
+    private static boolean deleteRecursively(File file) {
+        if (!file.exists()) {
+            return true;
+        }
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        return file.delete();
+    }
+
+    private static File getAccountDirectory(String accountNumber) {
+        return new File(ARCHIVE_DIR, accountNumber);
+    }
+
+    private static File getSegmentFile(String accountNumber, int segmentNumber) {
+        return new File(getAccountDirectory(accountNumber), String.format("segment-%05d.txt.gz", segmentNumber));
+    }
+
+    // Private constructor to prevent instantiation
+    private TransactionArchive() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+}
@@ -0,0 +1,165 @@
+package pennywise.report;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import pennywise.Account;
+import pennywise.AppConstants;
+import pennywise.RegularUser;
+import pennywise.UserManager;
+
+/**
+ * BalanceDistribution class describes how account balances are spread across the system.
+ *
+ * It holds one QuantileSketch per account type and the number of overdrawn accounts per
+ * overdraft depth bucket. It is built in one parallel pass: the accounts are split on a
+ * ForkJoinPool, every task sketches its own slice and the partial results are merged on
+ * the way back up, so memory stays small and nothing is sorted however many accounts exist.
+ */
+public final class BalanceDistribution {
+
+    // Upper bounds (in dollars) of the overdraft depth buckets; the last bucket is open-ended
+    private static final double[] OVERDRAFT_BOUNDS = {100, 250, 500, 1000};
+
+    private final Map<String, QuantileSketch> sketches = new TreeMap<>();
+    private final long[] overdraftCounts = new long[OVERDRAFT_BOUNDS.length + 1];
+    private long elapsedNanos;
+
+    /**
+     * Fork/join task sketching accounts[from, to).
+     */
+    private static final class SketchRange extends RecursiveTask<BalanceDistribution> {
+        private static final long serialVersionUID = 1L;
+
+        private final Account[] accounts;
+        private final int from;
+        private final int to;
+
+        SketchRange(Account[] accounts, int from, int to) {
+            this.accounts = accounts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BalanceDistribution compute() {
+            if (to - from <= AppConstants.BATCH_SPLIT_THRESHOLD) {
+                BalanceDistribution part = new BalanceDistribution();
+                // LOOPS: sketch this slice on the current worker
+                for (int i = from; i < to; i++) {
+                    part.add(accounts[i]);
+                }
+                return part;
+            }
+            int middle = (from + to) >>> 1;
+            SketchRange left = new SketchRange(accounts, from, middle);
+            left.fork();
+            BalanceDistribution right = new SketchRange(accounts, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Builds the distribution of every account in one parallel pass.
+     *
+     * @return Balance distribution
+     */
+    public static BalanceDistribution compute() {
+        List<Account> all = new ArrayList<>();
+        // LOOPS: flatten users and their accounts
+        for (RegularUser user : UserManager.getAllRegularUsers()) {
+            if (user == null) {
+                continue;
+            }
+            for (Account account : user.getAccounts()) {
+                if (account != null) {
+                    all.add(account);
+                }
+            }
+        }
+        Account[] accounts = all.toArray(new Account[0]);
+
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        BalanceDistribution distribution;
+        try {
+            distribution = pool.invoke(new SketchRange(accounts, 0, accounts.length));
+        } finally {
+            pool.shutdown();
+        }
+        distribution.elapsedNanos = System.nanoTime() - start;
+        return distribution;
+    }
+
+    /**
+     * VOID METHOD: Adds one account to the distribution.
+     */
+    private void add(Account account) {
+        double balance = account.getBalance();
+        sketches.computeIfAbsent(account.getAccountType(), type -> new QuantileSketch()).add(balance);
+        if (balance < 0) {
+            overdraftCounts[overdraftBucket(-balance)]++;
+        }
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Adds the counts of another distribution to this one.
+     */
+    private BalanceDistribution merge(BalanceDistribution other) {
+        for (Map.Entry<String, QuantileSketch> entry : other.sketches.entrySet()) {
+            sketches.computeIfAbsent(entry.getKey(), type -> new QuantileSketch()).merge(entry.getValue());
+        }
+        for (int i = 0; i < overdraftCounts.length; i++) {
+            overdraftCounts[i] += other.overdraftCounts[i];
+        }
+        return this;
+    }
+
+    private static int overdraftBucket(double depth) {
+        int bucket = 0;
+        while (bucket < OVERDRAFT_BOUNDS.length && depth > OVERDRAFT_BOUNDS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Returns the balance sketch of every account type, by type name.
+     */
+    public Map<String, QuantileSketch> getSketches() {
+        return Collections.unmodifiableMap(sketches);
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Returns the number of overdraft depth buckets.
+     */
+    public int getOverdraftBucketCount() {
+        return overdraftCounts.length;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Returns the number of overdrawn accounts in a depth bucket.
+     */
+    public long getOverdraftCount(int bucket) {
+        return overdraftCounts[bucket];
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Describes the overdraft depth range of a bucket (e.g. "$100 - $250").
+     */
+    public String getOverdraftBucketLabel(int bucket) {
+        if (bucket == OVERDRAFT_BOUNDS.length) {
+            return "over $" + (long) OVERDRAFT_BOUNDS[bucket - 1];
+        }
+        long low = bucket == 0 ? 0 : (long) OVERDRAFT_BOUNDS[bucket - 1];
+        return "$" + low + " - $" + (long) OVERDRAFT_BOUNDS[bucket];
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
@@ -0,0 +1,125 @@
+package pennywise.report;
+
+import java.util.Arrays;
+
+/**
+ * QuantileSketch class estimates quantiles of money amounts in a fixed amount of memory.
+ *
+ * Amounts are counted in logarithmic buckets: each bucket spans a factor of
+ * (1 + ERROR) / (1 - ERROR), so any estimate is within ERROR (1%) of the true value.
+ * Negative amounts get their own buckets and amounts under one cent are counted as zero.
+ * Two sketches merge by adding their bucket counts, so parts of the data can be sketched
+ * on different threads and combined afterwards, and nothing has to be sorted.
+ */
+public final class QuantileSketch {
+
+    // Relative accuracy of the estimates
+    public static final double ERROR = 0.01;
+
+    private static final double GAMMA = (1 + ERROR) / (1 - ERROR);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    // ARRAYS: bucket k counts amounts of (GAMMA^(k-1), GAMMA^k] cents; grown on demand
+    private long[] positive = new long[0];
+    private long[] negative = new long[0];
+    private long zero;
+    private long count;
+
+    /**
+     * VOID METHOD: Adds one amount to the sketch.
+     *
+     * @param amount Amount in dollars
+     */
+    public void add(double amount) {
+        double cents = Math.abs(amount) * 100;
+        count++;
+        // SELECTION: sub-cent amounts (and NaN) count as zero
+        if (!(cents >= 1)) {
+            zero++;
+            return;
+        }
+        int key = (int) Math.ceil(Math.log(cents) / LOG_GAMMA);
+        if (amount > 0) {
+            positive = grow(positive, key);
+            positive[key]++;
+        } else {
+            negative = grow(negative, key);
+            negative[key]++;
+        }
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Adds the counts of another sketch to this one.
+     *
+     * @param other Sketch to merge in (left unchanged)
+     * @return This sketch
+     */
+    public QuantileSketch merge(QuantileSketch other) {
+        positive = addAll(positive, other.positive);
+        negative = addAll(negative, other.negative);
+        zero += other.zero;
+        count += other.count;
+        return this;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Returns the number of amounts added.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Estimates a quantile (e.g. 0.5 for the median).
+     *
+     * @param quantile Quantile between 0 and 1
+     * @return Estimated amount in dollars, or NaN if the sketch is empty
+     */
+    public double quantile(double quantile) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) Math.floor(Math.max(0, Math.min(1, quantile)) * (count - 1));
+        long seen = 0;
+        // LOOPS: walk the buckets from the most negative amount to the largest positive one
+        for (int key = negative.length - 1; key >= 0; key--) {
+            seen += negative[key];
+            if (seen > rank) {
+                return -bucketValue(key);
+            }
+        }
+        seen += zero;
+        if (seen > rank) {
+            return 0;
+        }
+        for (int key = 0; key < positive.length; key++) {
+            seen += positive[key];
+            if (seen > rank) {
+                return bucketValue(key);
+            }
+        }
+        return bucketValue(positive.length - 1);
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Returns the representative amount of a bucket in dollars.
+     * The value sits where the relative error to both bucket ends is the same.
+     */
+    private static double bucketValue(int key) {
+        return 2 * Math.pow(GAMMA, key) / (GAMMA + 1) / 100;
+    }
+
+    private static long[] grow(long[] buckets, int key) {
+        return key < buckets.length ? buckets : Arrays.copyOf(buckets, Math.max(key + 1, buckets.length * 2));
+    }
+
+    private static long[] addAll(long[] target, long[] source) {
+        if (source.length > target.length) {
+            target = Arrays.copyOf(target, source.length);
+        }
+        for (int i = 0; i < source.length; i++) {
+            target[i] += source[i];
+        }
+        return target;
+    }
+}
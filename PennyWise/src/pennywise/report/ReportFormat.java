@@ -0,0 +1,23 @@
+package pennywise.report;
+
+/**
+ * Output formats supported by ReportWriter.
+ * CSV starts with a header line; JSON Lines writes one self-describing object per line.
+ */
+public enum ReportFormat {
+    CSV(".csv"),
+    JSONL(".jsonl");
+
+    private final String extension;
+
+    ReportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Returns the file extension of the format (with the dot).
+     */
+    public String getExtension() {
+        return extension;
+    }
+}
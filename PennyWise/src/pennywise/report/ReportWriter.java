@@ -0,0 +1,148 @@
+package pennywise.report;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+import pennywise.data.BatchSummaryFile;
+
+/**
+ * ReportWriter class streams report rows to a file in data/reports.
+ * Demonstrates FILE I/O operations.
+ *
+ * Rows are formatted by one reusable RowFormatter and written straight into a buffered
+ * (optionally gzip-compressed) file sink, so memory use stays the same however many
+ * rows a report has. Always close the writer (try-with-resources) to flush the file.
+ *
+ * Usage:
+ *   try (ReportWriter report = ReportWriter.open("accounts", ReportFormat.CSV, false, "account", "balance")) {
+ *       report.text(number).money(balance).endRow();
+ *   }
+ */
+public final class ReportWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final File file;
+    private final Writer out;
+    private final RowFormatter formatter;
+    private char[] chars = new char[256]; // Reused to copy each row into the writer
+    private long rowCount;
+
+    private ReportWriter(File file, Writer out, RowFormatter formatter) {
+        this.file = file;
+        this.out = out;
+        this.formatter = formatter;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Creates a report file and writes its header.
+     * The file is named <name>-<yyyyMMdd-HHmmss><extension>[.gz].
+     *
+     * @param name Short report name used in the file name
+     * @param format Output format
+     * @param gzip true to gzip-compress the file
+     * @param columns Column names
+     * @return Open report writer
+     * @throws IOException if the file cannot be created
+     */
+    public static ReportWriter open(String name, ReportFormat format, boolean gzip, String... columns) throws IOException {
+        RowFormatter formatter = new RowFormatter(format, columns);
+        File file = new File(BatchSummaryFile.reportsDirectory(),
+                             name + "-" + LocalDateTime.now().format(STAMP) + format.getExtension() + (gzip ? ".gz" : ""));
+
+        OutputStream stream = new FileOutputStream(file);
+        try {
+            if (gzip) {
+                stream = new GZIPOutputStream(stream, BUFFER_SIZE);
+            }
+        } catch (IOException e) {
+            stream.close();
+            throw e;
+        }
+        ReportWriter report = new ReportWriter(file,
+            new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE), formatter);
+
+        String header = formatter.header();
+        if (header != null) {
+            try {
+                report.out.write(header);
+                report.out.write('\n');
+            } catch (IOException e) {
+                report.close();
+                throw e;
+            }
+        }
+        return report;
+    }
+
+    // Field methods: one call per column, in column order, then endRow()
+    public ReportWriter text(String value) {
+        formatter.text(value);
+        return this;
+    }
+
+    public ReportWriter number(long value) {
+        formatter.number(value);
+        return this;
+    }
+
+    public ReportWriter decimal(double value) {
+        formatter.decimal(value);
+        return this;
+    }
+
+    public ReportWriter money(double value) {
+        formatter.money(value);
+        return this;
+    }
+
+    /**
+     * VOID METHOD: Writes the completed row to the file.
+     *
+     * @throws IOException if the row cannot be written
+     */
+    public void endRow() throws IOException {
+        CharSequence row = formatter.finishRow();
+        int length = row.length();
+        if (length > chars.length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        // Copy into the reused array instead of building a String per row
+        formatter.copyRow(chars);
+        out.write(chars, 0, length);
+        out.write('\n');
+        rowCount++;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Returns the number of data rows written so far.
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Returns the path of the report file.
+     */
+    public String getPath() {
+        return file.getPath();
+    }
+
+    /**
+     * VOID METHOD: Flushes and closes the file (finishing the gzip stream if any).
+     */
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,207 @@
+package pennywise.report;
+
+/**
+ * RowFormatter class turns report rows into CSV or JSON Lines text.
+ *
+ * One formatter is reused for every row of a report: fields are appended to a single
+ * StringBuilder that is cleared when the next row starts, so formatting a row does not
+ * build intermediate strings. Money is written from whole cents without String.format.
+ *
+ * Usage: call text/number/money once per column, in column order, then finishRow().
+ */
+public final class RowFormatter {
+
+    private final ReportFormat format;
+    private final String[] columns;
+    private final StringBuilder row = new StringBuilder(256);
+    private int column;
+
+    /**
+     * Constructor to initialize a RowFormatter.
+     *
+     * @param format Output format
+     * @param columns Column names, in the order fields are appended
+     */
+    public RowFormatter(ReportFormat format, String... columns) {
+        if (columns.length == 0) {
+            throw new IllegalArgumentException("A report needs at least one column");
+        }
+        this.format = format;
+        this.columns = columns.clone();
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Returns the header line, or null if the format has none.
+     */
+    public String header() {
+        if (format != ReportFormat.CSV) {
+            return null;
+        }
+        StringBuilder header = new StringBuilder();
+        // LOOPS: one quoted-as-needed name per column
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                header.append(',');
+            }
+            appendCsvText(header, columns[i]);
+        }
+        return header.toString();
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Appends a text field.
+     */
+    public RowFormatter text(String value) {
+        startField();
+        if (value == null) {
+            if (format == ReportFormat.JSONL) {
+                row.append("null");
+            }
+        } else if (format == ReportFormat.CSV) {
+            appendCsvText(row, value);
+        } else {
+            appendJsonText(row, value);
+        }
+        return this;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Appends a whole-number field.
+     */
+    public RowFormatter number(long value) {
+        startField();
+        row.append(value);
+        return this;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Appends a decimal field (e.g. a rate) in its shortest exact form.
+     */
+    public RowFormatter decimal(double value) {
+        startField();
+        row.append(value);
+        return this;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Appends a money field with two decimals (e.g. -12.05).
+     */
+    public RowFormatter money(double value) {
+        startField();
+        long cents = Math.round(value * 100);
+        if (cents < 0) {
+            row.append('-');
+            cents = -cents;
+        }
+        row.append(cents / 100).append('.');
+        long fraction = cents % 100;
+        if (fraction < 10) {
+            row.append('0');
+        }
+        row.append(fraction);
+        return this;
+    }
+
+    /**
+     * VALUE RETURNING METHOD: Completes the current row.
+     * The returned text is only valid until the next field is appended.
+     *
+     * @return Formatted row without line separator
+     * @throws IllegalStateException if not every column was filled in
+     */
+    public CharSequence finishRow() {
+        if (column != columns.length) {
+            throw new IllegalStateException("Row has " + column + " of " + columns.length + " fields");
+        }
+        if (format == ReportFormat.JSONL) {
+            row.append('}');
+        }
+        column = 0;
+        return row;
+    }
+
+    /**
+     * VOID METHOD: Copies the finished row into a character array at least as long as the row.
+     */
+    void copyRow(char[] target) {
+        row.getChars(0, row.length(), target, 0);
+    }
+
+    /**
+     * VOID METHOD: Writes the separator (and for JSON the key) of the next field.
+     */
+    private void startField() {
+        if (column == columns.length) {
+            throw new IllegalStateException("Row already has " + columns.length + " fields");
+        }
+        // SELECTION: the first field of a row clears the buffer of the previous row
+        if (column == 0) {
+            row.setLength(0);
+            if (format == ReportFormat.JSONL) {
+                row.append('{');
+            }
+        } else {
+            row.append(',');
+        }
+        if (format == ReportFormat.JSONL) {
+            appendJsonText(row, columns[column]);
+            row.append(':');
+        }
+        column++;
+    }
+
+    private static void appendCsvText(StringBuilder target, String value) {
+        boolean quote = false;
+        // LOOPS: quoting is only needed for separators, quotes and line breaks
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            target.append(value);
+            return;
+        }
+        target.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                target.append('"');
+            }
+            target.append(c);
+        }
+        target.append('"');
+    }
+
+    private static void appendJsonText(StringBuilder target, String value) {
+        target.append('"');
+        // LOOPS: escape quotes, backslashes and control characters
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    target.append("\\\"");
+                    break;
+                case '\\':
+                    target.append("\\\\");
+                    break;
+                case '\n':
+                    target.append("\\n");
+                    break;
+                case '\r':
+                    target.append("\\r");
+                    break;
+                case '\t':
+                    target.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        target.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        target.append(c);
+                    }
+                    break;
+            }
+        }
+        target.append('"');
+    }
+}